@@ -27,10 +27,17 @@ import io.nuls.contract.entity.NRC721;
 import io.nuls.contract.entity.Staking;
 import io.nuls.contract.event.*;
 import io.nuls.contract.manager.TreasuryManager;
+import io.nuls.contract.model.DomainIdList;
+import io.nuls.contract.model.DomainName;
 import io.nuls.contract.model.DomainPrice;
+import io.nuls.contract.model.IdentityRecord;
+import io.nuls.contract.model.MintBatch;
 import io.nuls.contract.model.NextId;
+import io.nuls.contract.model.TokenRange;
 import io.nuls.contract.model.UserInfo;
+import io.nuls.contract.model.UserInfoView;
 import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Block;
 import io.nuls.contract.sdk.Contract;
 import io.nuls.contract.sdk.Msg;
 import io.nuls.contract.sdk.Utils;
@@ -40,11 +47,17 @@ import io.nuls.contract.sdk.annotation.Required;
 import io.nuls.contract.sdk.annotation.View;
 import io.nuls.contract.sdk.event.DebugEvent;
 import io.nuls.contract.utils.ReentrancyGuard;
+import io.nuls.contract.utils.RewardAccumulator;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static io.nuls.contract.sdk.Utils.*;
 
@@ -54,24 +67,35 @@ import static io.nuls.contract.sdk.Utils.*;
  */
 public class NulsDomain extends ReentrancyGuard implements Contract {
 
-    private final Map<BigInteger, String> domains = new HashMap<BigInteger, String>();
+    // tokenId -> 域名记录(域名、是否激活奖励、持有者)
+    private final Map<BigInteger, IdentityRecord> identities = new HashMap<BigInteger, IdentityRecord>();
     private final Map<String, BigInteger> domainIndexes = new HashMap<String, BigInteger>();
     private final Map<String, NextId> domainNextIds = new HashMap<String, NextId>();
-    private final Map<BigInteger, Address> token721ByStartIds = new HashMap<BigInteger, Address>();
-    private BigInteger rewardCount = BigInteger.ZERO;
-    private final Map<String, Boolean> domainAwards = new HashMap<String, Boolean>();
+    // 按startId升序排列的tokenId区间，二分查找定位NRC721合约
+    private final List<TokenRange> tokenRanges = new ArrayList<TokenRange>();
+    private long rewardCount = 0;
     private final Map<String, Address> domainSuffixFor721Map = new HashMap<String, Address>();
     private final Map<Address, String> token721ForSuffixMap = new HashMap<Address, String>();
     private final Map<Address, UserInfo> userDomains = new HashMap<Address, UserInfo>();
+    // 用户持有的已激活、未激活奖励的域名tokenId列表，与UserInfo分开存放，只在增删域名时加载
+    private final Map<Address, DomainIdList> activeDomainLists = new HashMap<Address, DomainIdList>();
+    private final Map<Address, DomainIdList> inactiveDomainLists = new HashMap<Address, DomainIdList>();
     private final Map<String, DomainPrice> domainPriceMap = new HashMap<String, DomainPrice>();
 
     private final TreasuryManager treasuryManager;
     private BigInteger accPerShare = BigInteger.ZERO;
     private BigInteger lastAward = BigInteger.ZERO;
-    private final BigInteger _1e12 = BigInteger.TEN.pow(12);
+    // 最近一次更新奖池的区块高度，同一区块内不再重复查询共识奖励
+    private long lastPoolBlock = -1;
     private boolean initialized = false;
-    private BigInteger lastDefaultStartId;
+    // 下一个可分配区间的起始id
+    private BigInteger nextStartId;
     private final BigInteger _100000 = BigInteger.valueOf(100000);
+    // 待发放奖励的用户队列，结算时入队，由flushPayouts批量发放或用户receiveAward自行领取
+    private final LinkedList<Address> payoutQueue = new LinkedList<Address>();
+    private final Set<Address> queuedPayouts = new HashSet<Address>();
+    // 已结算未发放的奖励总额
+    private BigInteger totalOwed = BigInteger.ZERO;
 
     public NulsDomain() {
         this.treasuryManager = new TreasuryManager();
@@ -90,8 +114,8 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         super.setOfficial(official);
         treasuryManager.setStaking(staking);
         treasuryManager.setTreasury(treasury);
-        lastDefaultStartId = BigInteger.ZERO;
-        this.addSuffixInfo("ai", nulsSuffix721, lastDefaultStartId);
+        nextStartId = BigInteger.ZERO;
+        this.addSuffixInfo("ai", nulsSuffix721, _100000);
     }
 
     protected void onlyDomain721() {
@@ -113,6 +137,26 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         treasuryManager.setTreasury(treasury);
     }
 
+    /**
+     * 设置sweep时转出手续费、质押金额的最低阈值
+     */
+    public void setSweepThresholds(BigInteger feeThreshold, BigInteger stakingThreshold) {
+        onlyOfficial();
+        treasuryManager.setThresholds(feeThreshold, stakingThreshold);
+    }
+
+    /**
+     * 将累计的手续费转入国库，累计的待质押金额质押到staking合约，任何人都可调用
+     */
+    public void sweep() {
+        _nonReentrantBefore();
+        BigInteger[] swept = treasuryManager.sweep();
+        if (swept[0].compareTo(BigInteger.ZERO) > 0 || swept[1].compareTo(BigInteger.ZERO) > 0) {
+            emit(new TreasurySweep(swept[0], swept[1]));
+        }
+        _nonReentrantAfter();
+    }
+
     @Payable
     @Override
     public void _payable() {
@@ -121,19 +165,39 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
 
     public void addDomainSuffix(String suffix, Address _721) {
         onlyOwner();
-        lastDefaultStartId = lastDefaultStartId.add(_100000);
+        this.addDomainSuffixInner(suffix, _721, _100000);
+    }
+
+    public void addDomainSuffixWithRange(String suffix, Address _721, BigInteger rangeSize) {
+        onlyOwner();
+        this.addDomainSuffixInner(suffix, _721, rangeSize);
+    }
+
+    /**
+     * 后缀的tokenId区间用完后，为其追加新的区间
+     */
+    public void addSuffixRange(String suffix, BigInteger rangeSize) {
+        onlyOwner();
+        suffix = this.checkSuffix(suffix);
+        Address _721 = domainSuffixFor721Map.get(suffix);
+        require(_721 != null, "Domain Suffix Not Exist");
+        TokenRange range = this.allocateRange(_721, rangeSize);
+        domainNextIds.get(suffix).addRange(range);
+    }
+
+    private void addDomainSuffixInner(String suffix, Address _721, BigInteger rangeSize) {
         if (suffix == null || suffix.length() == 0) {
             NRC721 nrc721 = new NRC721(_721);
             suffix = this.checkSuffix(nrc721.name());
         } else {
             suffix = this.checkSuffix(suffix);
         }
-        this.addSuffixInfo(suffix, _721, lastDefaultStartId);
+        this.addSuffixInfo(suffix, _721, rangeSize);
     }
 
     public void changeDomainPrice(String suffix, int length, BigInteger price) {
         onlyOfficial();
-        require(length > 0 && length <= 64, "error length");
+        require(length > 0 && length <= DomainPrice.MAX_LENGTH, "error length");
         require(price.compareTo(treasuryManager.ONE_NULS) >= 0, "Error price");
         suffix = this.checkSuffix(suffix);
         DomainPrice domainPrice = domainPriceMap.get(suffix);
@@ -142,15 +206,11 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         BigInteger prePrice = BigInteger.ZERO;
         int defaultPriceLength = domainPrice.getDefaultPriceLength();
         BigInteger defaultPrice = domainPrice.getDefaultPrice();
-        Map<Integer, BigInteger> priceMap = domainPrice.getDomainPrice();
         if (length >= defaultPriceLength) {
             require(length == defaultPriceLength, "Can only be added in order");
             require(price.compareTo(defaultPrice) > 0, "Price must be greater than the default price");
-            defaultPriceLength++;
-            domainPrice.setDefaultPriceLength(defaultPriceLength);
-            priceMap.put(length, price);
+            domainPrice.appendPrice(price);
         } else {
-            prePrice = priceMap.get(length);
             int before = length - 1;
             int after = length + 1;
             BigInteger beforePrice;
@@ -158,15 +218,15 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
             if (before == 0) {
                 beforePrice = treasuryManager.ONE_NULS.multiply(treasuryManager.ONE_NULS);
             } else {
-                beforePrice = priceMap.get(before);
+                beforePrice = domainPrice.getPrice(before);
             }
             if (after == defaultPriceLength) {
                 afterPrice = defaultPrice;
             } else {
-                afterPrice = priceMap.get(after);
+                afterPrice = domainPrice.getPrice(after);
             }
             require(price.compareTo(beforePrice) < 0 && price.compareTo(afterPrice) > 0, "The price should be between "+ toNuls(afterPrice) + " and " + toNuls(beforePrice));
-            priceMap.put(length, price);
+            prePrice = domainPrice.setPrice(length, price);
         }
         emit(new ChangeDomainPrice(suffix, length, prePrice.toString(), price.toString()));
     }
@@ -179,8 +239,7 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         require(domainPrice != null, "Domain Suffix Not Exist");
 
         int defaultPriceLength = domainPrice.getDefaultPriceLength();
-        Map<Integer, BigInteger> priceMap = domainPrice.getDomainPrice();
-        BigInteger _price = priceMap.get(defaultPriceLength - 1);
+        BigInteger _price = domainPrice.getPrice(defaultPriceLength - 1);
         require(_price.compareTo(price) > 0, "The price is high");
         BigInteger defaultPrice = domainPrice.getDefaultPrice();
         domainPrice.setDefaultPrice(price);
@@ -193,41 +252,14 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
     }
 
     private String checkSuffix(String suffix) {
-        return this.toLowerCase(suffix);
-    }
-
-    private String checkDomain(String domain, boolean strict) {
-        return this.toLowerCase(domain);
-    }
-
-    private String toLowerCase(String str) {
-        if (str == null || str.isEmpty()) {
-            return str; // 如果字符串为 null 或空，直接返回
-        }
-
-        // 创建一个 StringBuilder 用于构建结果字符串
-        StringBuilder result = new StringBuilder();
-
-        for (int i = 0; i < str.length(); i++) {
-            char c = str.charAt(i);
-            // 如果是大写字母，转换为小写
-            if (c >= 'A' && c <= 'Z') {
-                result.append((char) (c + 32));
-            } else {
-                // 非大写字母直接添加
-                result.append(c);
-            }
-        }
-
-        return result.toString(); // 返回结果字符串
+        return DomainName.toLowerCase(suffix);
     }
 
     @Payable
     public boolean mint(@Required String domain, @Required String pub) {
         _nonReentrantBefore();
         this.checkPub(pub);
-        domain = this.checkDomain(domain, true);
-        boolean bool = this._mintWithTokenURI(Msg.sender(), domain, null, true, pub);
+        boolean bool = this._mintWithTokenURI(Msg.sender(), DomainName.parse(domain), null, true, pub, null);
         _nonReentrantAfter();
         return bool;
     }
@@ -236,8 +268,7 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
     public boolean mintWithTokenURI(@Required String domain, @Required String tokenURI, @Required String pub) {
         _nonReentrantBefore();
         this.checkPub(pub);
-        domain = this.checkDomain(domain, true);
-        boolean bool = this._mintWithTokenURI(Msg.sender(), domain, tokenURI, true, pub);
+        boolean bool = this._mintWithTokenURI(Msg.sender(), DomainName.parse(domain), tokenURI, true, pub, null);
         _nonReentrantAfter();
         return bool;
     }
@@ -246,8 +277,7 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         _nonReentrantBefore();
         this.checkPub(pub);
         UserInfo userInfo = this.checkUserHistory();
-        domain = this.checkDomain(domain, true);
-        boolean bool = this._mintWithTokenURI(Msg.sender(), domain, null, false, pub);
+        boolean bool = this._mintWithTokenURI(Msg.sender(), DomainName.parse(domain), null, false, pub, null);
         userInfo.setHistoryQuota(userInfo.getHistoryQuota() - 1);
         _nonReentrantAfter();
         return bool;
@@ -257,41 +287,80 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
     public void activeAward(@Required String domain, @Required String pub) {
         _nonReentrantBefore();
         this.checkPub(pub);
-        domain = this.checkDomain(domain, false);
+        DomainName domainName = DomainName.parse(domain);
+        domain = domainName.getName();
         BigInteger tokenId = domainIndexes.get(domain);
         require(tokenId != null, "Not exist domain");
-        Boolean award = domainAwards.get(domain);
-        require(award == null || !award, "Already active");
-        String token721 = this.get721ById(tokenId);
-        require(!token721.isEmpty(), "Error tokenId");
-        NRC721 nrc721 = new NRC721(new Address(token721));
-        require(nrc721.ownerOf(tokenId).equals(Msg.sender()), "NRC721: token that is not own");
-        String[] split = domain.split("\\.");
-        String suffix = split[split.length - 1];
-        /*String prefix = "";
-        for (int i = 0, length = split.length - 1; i < length; i ++) {
-            prefix += split[i];
-            if (i != length - 1) {
-                prefix += ".";
-            }
-        }*/
-        this._activeAward(Msg.sender(), Msg.value(), suffix, domain, false, pub);
+        IdentityRecord record = identities.get(tokenId);
+        require(!record.isActive(), "Already active");
+        require(record.getOwner().equals(Msg.sender()), "NRC721: token that is not own");
+        this._activeAward(Msg.sender(), Msg.value(), domainName, tokenId, false, pub);
+        _nonReentrantAfter();
+    }
+
+    /**
+     * 批量激活域名奖励，奖池更新、领取奖励和国库入账各只执行一次
+     */
+    @Payable
+    public void batchActiveAward(@Required String[] domains, @Required String pub) {
+        _nonReentrantBefore();
+        this.checkPub(pub);
+        require(domains.length > 0 && domains.length <= 100, "max size: 100.");
+        Address user = Msg.sender();
+        BigInteger userPay = Msg.value();
+        require(this.extractDecimal(userPay).compareTo(BigInteger.ZERO) == 0, "Domain mint: payment not good, floating point numbers are not allowed");
+        int size = domains.length;
+        String[] names = new String[size];
+        BigInteger[] ids = new BigInteger[size];
+        BigInteger[] prices = new BigInteger[size];
+        BigInteger totalPrice = BigInteger.ZERO;
+        for (int i = 0; i < size; i++) {
+            DomainName domainName = DomainName.parse(domains[i]);
+            String domain = domainName.getName();
+            BigInteger tokenId = domainIndexes.get(domain);
+            require(tokenId != null, "Not exist domain: " + domain);
+            IdentityRecord record = identities.get(tokenId);
+            require(!record.isActive(), "Already active: " + domain);
+            require(record.getOwner().equals(user), "NRC721: token that is not own");
+            prices[i] = this.getPrice(domainName);
+            totalPrice = totalPrice.add(prices[i]);
+            // 同一批次内重复的域名会在此处被拦截
+            record.setActive(true);
+            names[i] = domain;
+            ids[i] = tokenId;
+        }
+        require(userPay.compareTo(totalPrice) >= 0, "Insufficient payment");
+
+        UserInfo userInfo = userDomains.get(user);
+        require(userInfo != null, "No domains");
+        this.updatePub(user, userInfo, pub);
+        updatePool();
+        _settle(user, userInfo);
+        for (int i = 0; i < size; i++) {
+            this.removeUserDomain(user, userInfo, ids[i], false);
+            this.addUserDomain(user, userInfo, ids[i], true);
+        }
+        rewardCount += size;
+        userInfo.setRewardDebt(RewardAccumulator.accrued(userInfo.getActiveDomainsSize(), accPerShare));
+        treasuryManager.add(userPay);
+        for (int i = 0; i < size; i++) {
+            emit(new UserActiveAward(user.toString(), prices[i], names[i], false));
+        }
         _nonReentrantAfter();
     }
 
     public void changeMainDomain(@Required String domain, @Required String pub) {
         _nonReentrantBefore();
         this.checkPub(pub);
-        domain = this.checkDomain(domain, false);
+        domain = DomainName.toLowerCase(domain);
         BigInteger tokenId = domainIndexes.get(domain);
         require(tokenId != null, "Not exist domain");
-        String token721 = this.get721ById(tokenId);
-        require(!token721.isEmpty(), "Error tokenId");
-        NRC721 nrc721 = new NRC721(new Address(token721));
-        require(nrc721.ownerOf(tokenId).equals(Msg.sender()), "NRC721: token that is not own");
+        IdentityRecord record = identities.get(tokenId);
+        require(record.getOwner().equals(Msg.sender()), "NRC721: token that is not own");
         UserInfo userInfo = userDomains.get(Msg.sender());
-        userInfo.updatePub(pub);
-        userInfo.setMainDomain(domain);
+        this.updatePub(Msg.sender(), userInfo, pub);
+        userInfo.setMainDomainId(tokenId);
+        emit(new MainDomainChanged(Msg.sender(), tokenId, domain));
         _nonReentrantAfter();
     }
 
@@ -299,13 +368,57 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         _nonReentrantBefore();
         Address user = Msg.sender();
         UserInfo userInfo = userDomains.get(user);
-        require(userInfo != null && userInfo.getActiveDomainsSize() > 0, "No domains");
+        // 已转出全部域名的用户仍可领取已结算的奖励
+        require(userInfo != null && (userInfo.getActiveDomainsSize() > 0 || userInfo.getPending().compareTo(BigInteger.ZERO) > 0), "No domains");
         updatePool();
-        _receive(user, userInfo);
-        userInfo.setRewardDebt(BigInteger.valueOf(userInfo.getActiveDomainsSize()).multiply(accPerShare).divide(_1e12));
+        BigInteger prePending = userInfo.getPending();
+        _settle(user, userInfo);
+        userInfo.setRewardDebt(RewardAccumulator.accrued(userInfo.getActiveDomainsSize(), accPerShare));
+        if (!_payout(user, userInfo)) {
+            _keepPending(user, userInfo, prePending);
+        }
         _nonReentrantAfter();
     }
 
+    /**
+     * 按入队顺序为已结算的用户发放奖励，任何人都可调用
+     * 合约地址的转账会执行其_payable，可能导致整批回滚，因此跳过合约地址，由其自行调用receiveAward领取
+     *
+     * @param maxCount 本次最多处理的用户数量
+     * @return 队列中剩余的用户数量
+     */
+    public int flushPayouts(int maxCount) {
+        _nonReentrantBefore();
+        require(maxCount > 0 && maxCount <= 100, "maxCount not good");
+        int processed = 0;
+        while (processed < maxCount && !payoutQueue.isEmpty()) {
+            Address user = payoutQueue.removeFirst();
+            queuedPayouts.remove(user);
+            processed++;
+            UserInfo userInfo = userDomains.get(user);
+            if (userInfo == null || userInfo.getPending().compareTo(BigInteger.ZERO) == 0) {
+                // 用户已自行领取
+                continue;
+            }
+            if (user.isContract()) {
+                _keepPending(user, userInfo, userInfo.getPending());
+                continue;
+            }
+            if (!_payout(user, userInfo)) {
+                _keepPending(user, userInfo, userInfo.getPending());
+                if (userInfo.getPending().compareTo(treasuryManager.MININUM_TRANSFER_AMOUNT) >= 0) {
+                    // 余额不足，放回队首等待下次发放
+                    payoutQueue.addFirst(user);
+                    queuedPayouts.add(user);
+                    break;
+                }
+            }
+        }
+        int remaining = payoutQueue.size();
+        _nonReentrantAfter();
+        return remaining;
+    }
+
     public boolean batchUpdatePub(@Required String[] tos, @Required String[] pubs) {
         onlyOwner();
         require(tos.length <= 100, "max size: 100.");
@@ -314,11 +427,11 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         String pub;
         for (int i = 0; i < tos.length; i++) {
             to = tos[i];
-            UserInfo userInfo = this.userDomains(new Address(to));
+            UserInfo userInfo = userDomains.get(new Address(to));
             require(userInfo != null, "Error User: " + to);
             pub = pubs[i];
             require(pub != null && !pub.isEmpty() && Utils.getAddressByPublicKey(pub).equals(to), "Error pubKey: " + to);
-            userInfo.updatePub(pub);
+            this.updatePub(new Address(to), userInfo, pub);
         }
         return true;
     }
@@ -345,16 +458,16 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         require(tos.length == domains.length && domains.length == pubs.length, "array size error.");
         String to;
         String pub;
-        String domain;
+        MintBatch batch = new MintBatch();
         for (int i = 0; i < tos.length; i++) {
             to = tos[i];
             pub = pubs[i];
             if (pub != null && !pub.isEmpty()) {
                 require(Utils.getAddressByPublicKey(pub).equals(to), "Error pubKey: " + to);
             }
-            domain = this.checkDomain(domains[i], true);
-            this._mintWithTokenURI(new Address(to), domain, null, false, pub);
+            this._mintWithTokenURI(new Address(to), DomainName.parse(domains[i]), null, false, pub, batch);
         }
+        this._mintBatch(batch);
         return true;
     }
 
@@ -364,25 +477,29 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         require(tos.length == domains.length && domains.length == tokenURIs.length && tokenURIs.length == pubs.length, "array size error.");
         String to;
         String pub;
-        String domain;
+        MintBatch batch = new MintBatch();
         for (int i = 0; i < tos.length; i++) {
             to = tos[i];
             pub = pubs[i];
             if (pub != null && !pub.isEmpty()) {
                 require(Utils.getAddressByPublicKey(pub).equals(to), "Error pubKey: " + to);
             }
-            domain = this.checkDomain(domains[i], true);
-            this._mintWithTokenURI(new Address(to), domain, tokenURIs[i], false, pub);
+            this._mintWithTokenURI(new Address(to), DomainName.parse(domains[i]), tokenURIs[i], false, pub, batch);
         }
+        this._mintBatch(batch);
         return true;
     }
 
     public void setTokenURI(BigInteger tokenId, String uri) {
+        IdentityRecord record = identities.get(tokenId);
+        require(record != null, "Error tokenId");
+        require(record.getOwner().equals(Msg.sender()), "NRC721: token that is not own");
         String token721 = this.get721ById(tokenId);
         require(!token721.isEmpty(), "Error tokenId");
         NRC721 nrc721 = new NRC721(new Address(token721));
-        require(nrc721.ownerOf(tokenId).equals(Msg.sender()), "NRC721: token that is not own");
         nrc721.setTokenURI(tokenId, uri);
+        record.setTokenURI(uri);
+        emit(new TokenURIChanged(tokenId, uri));
     }
 
     public void setUserURI(String uri) {
@@ -390,46 +507,93 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         require(userInfo != null, "not exist");
         require(uri != null, "uri error");
         userInfo.setUri(uri);
+        emit(new UserURIChanged(Msg.sender(), uri));
     }
 
     public void domainTransfer(Address from, Address to, BigInteger tokenId) {
         onlyDomain721();
-        String token721 = this.get721ById(tokenId);
-        require(!token721.isEmpty(), "Domain transfer: error tokenId");
-        require(Msg.sender().equals(new Address(token721)), "Domain transfer: token721 caller error");
+        this._domainTransfer(from, to, new BigInteger[]{tokenId});
+    }
+
+    /**
+     * NRC721批量转移的回调，双方奖励只结算一次
+     */
+    public void domainTransferBatch(Address from, Address to, String[] tokenIds) {
+        onlyDomain721();
+        require(tokenIds.length > 0 && tokenIds.length <= 100, "max size: 100.");
+        BigInteger[] ids = new BigInteger[tokenIds.length];
+        for (int i = 0; i < tokenIds.length; i++) {
+            ids[i] = new BigInteger(tokenIds[i]);
+        }
+        this._domainTransfer(from, to, ids);
+    }
+
+    /**
+     * NRC721销毁token的回调，结算持有者奖励后删除域名记录，并从持有者的域名列表中移除
+     */
+    public void domainBurn(Address owner, BigInteger tokenId) {
+        onlyDomain721();
+        TokenRange range = this.findRange(tokenId);
+        require(range != null, "Domain burn: error tokenId");
+        require(Msg.sender().equals(range.getToken721()), "Domain burn: token721 caller error");
+        IdentityRecord record = identities.get(tokenId);
+        require(record != null, "Domain Get: error tokenId");
+        require(record.getOwner().equals(owner), "Domain burn: owner error");
+        UserInfo userInfo = userDomains.get(owner);
+        boolean active = record.isActive();
+        updatePool();
+        _settle(owner, userInfo);
+        this.removeUserDomain(owner, userInfo, tokenId, active);
+        if (active) {
+            rewardCount--;
+        }
+        userInfo.setRewardDebt(RewardAccumulator.accrued(userInfo.getActiveDomainsSize(), accPerShare));
+        identities.remove(tokenId);
+        domainIndexes.remove(record.getDomain());
+        emit(new DomainBurned(tokenId, record.getDomain(), owner));
+    }
+
+    private void _domainTransfer(Address from, Address to, BigInteger[] tokenIds) {
+        Address sender = Msg.sender();
+        int size = tokenIds.length;
+        IdentityRecord[] records = new IdentityRecord[size];
+        for (int i = 0; i < size; i++) {
+            TokenRange range = this.findRange(tokenIds[i]);
+            require(range != null, "Domain transfer: error tokenId");
+            require(sender.equals(range.getToken721()), "Domain transfer: token721 caller error");
+            records[i] = identities.get(tokenIds[i]);
+            require(records[i] != null, "Domain Get: error tokenId");
+        }
         UserInfo userFrom = userDomains.get(from);
-        String domain = domains.get(tokenId);
-        require(domain != null, "Domain Get: error tokenId");
         updatePool();
         if (from.equals(to)) {
-            _receive(from, userFrom);
-            userFrom.setRewardDebt(BigInteger.valueOf(userFrom.getActiveDomainsSize()).multiply(accPerShare).divide(_1e12));
+            _settle(from, userFrom);
+            userFrom.setRewardDebt(RewardAccumulator.accrued(userFrom.getActiveDomainsSize(), accPerShare));
         } else {
-            Boolean award = domainAwards.get(domain);
-            boolean active = award != null && award;
-            if (active) {
-                require(userFrom.existActive(domain), "Domain Active Check: error domain");
-            } else {
-                require(userFrom.existInactive(domain), "Domain Inactive Check: error domain");
+            for (int i = 0; i < size; i++) {
+                boolean active = records[i].isActive();
+                DomainIdList fromList = (active ? activeDomainLists : inactiveDomainLists).get(from);
+                require(fromList != null && fromList.contains(tokenIds[i]), active ? "Domain Active Check: error domain" : "Domain Inactive Check: error domain");
             }
             UserInfo userTo = userDomains.get(to);
             if (userTo == null) {
                 userTo = new UserInfo();
                 userDomains.put(to, userTo);
             }
-            _receive(from, userFrom);
-            _receive(to, userTo);
-            if (!active) {
-                userTo.addInactiveDomains(domain);
-                userFrom.removeInactiveDomains(domain);
-            } else {
-                userTo.addActiveDomains(domain);
-                userFrom.removeActiveDomains(domain);
+            _settle(from, userFrom);
+            _settle(to, userTo);
+            for (int i = 0; i < size; i++) {
+                boolean active = records[i].isActive();
+                this.addUserDomain(to, userTo, tokenIds[i], active);
+                this.removeUserDomain(from, userFrom, tokenIds[i], active);
+                records[i].setOwner(to);
             }
-            userFrom.setRewardDebt(BigInteger.valueOf(userFrom.getActiveDomainsSize()).multiply(accPerShare).divide(_1e12));
-            userTo.setRewardDebt(BigInteger.valueOf(userTo.getActiveDomainsSize()).multiply(accPerShare).divide(_1e12));
+            userFrom.setRewardDebt(RewardAccumulator.accrued(userFrom.getActiveDomainsSize(), accPerShare));
+            userTo.setRewardDebt(RewardAccumulator.accrued(userTo.getActiveDomainsSize(), accPerShare));
+        }
+        for (int i = 0; i < size; i++) {
+            emit(new DomainTransfer(from, to, records[i].getDomain()));
         }
-        emit(new DomainTransfer(from, to, domain));
     }
 
     @View
@@ -464,20 +628,76 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         if (domainPrice == null) {
             return "0";
         }
-        BigInteger price = domainPrice.getDomainPrice().get(length);
-        return price != null ? price.toString() : domainPrice.getDefaultPrice().toString();
+        return domainPrice.getPrice(length).toString();
     }
 
     @JSONSerializable
     @View
     public String[] getPriceByDomain(String domain) {
-        domain = this.checkDomain(domain, false);
-        String[] split = domain.split("\\.");
-        String suffix = split[split.length - 1];
-        Address token721 = domainSuffixFor721Map.get(suffix);
+        DomainName domainName = DomainName.parse(domain);
+        Address token721 = domainSuffixFor721Map.get(domainName.getSuffix());
         require(token721 != null, "check 721: error domain");
-        BigInteger price = this.getPrice(suffix, domain);
-        return new String[]{price.toString(), this.isActiveAward(domain) + ""};
+        BigInteger price = this.getPrice(domainName);
+        return new String[]{price.toString(), this.isActiveAward(domainName.getName()) + ""};
+    }
+
+    /**
+     * 批量报价，用于域名搜索时的候选名称
+     *
+     * @return 每个域名对应 [价格, 是否可注册, 是否已激活奖励]，后缀或长度不合法时价格为空
+     */
+    @JSONSerializable
+    @View
+    public String[][] quoteMany(@Required String[] domains) {
+        require(domains.length <= 100, "max size: 100.");
+        String[][] result = new String[domains.length][];
+        for (int i = 0; i < domains.length; i++) {
+            DomainName domainName = DomainName.parse(domains[i]);
+            String suffix = domainName.getSuffix();
+            DomainPrice domainPrice = suffix == null ? null : domainPriceMap.get(suffix);
+            int prefixLength = domainName.getPrefixLength();
+            if (domainPrice == null || prefixLength <= 0 || prefixLength > DomainPrice.MAX_LENGTH) {
+                result[i] = new String[]{"", "false", "false"};
+                continue;
+            }
+            BigInteger id = domainIndexes.get(domainName.getName());
+            boolean available = id == null && domainName.isValidPrefix() && domainSuffixFor721Map.containsKey(suffix);
+            boolean active = id != null && identities.get(id).isActive();
+            result[i] = new String[]{domainPrice.getPrice(prefixLength).toString(), String.valueOf(available), String.valueOf(active)};
+        }
+        return result;
+    }
+
+    /**
+     * 批量检查域名是否可注册
+     * 状态: 0-可注册, 1-已被注册, 2-后缀不存在, 3-长度不合法, 4-包含非法字符
+     *
+     * @return 每个域名对应 [状态, 后缀对应的NRC721合约]，后缀不存在时合约为空
+     */
+    @JSONSerializable
+    @View
+    public String[][] availability(@Required String[] domains) {
+        require(domains.length <= 100, "max size: 100.");
+        String[][] result = new String[domains.length][];
+        for (int i = 0; i < domains.length; i++) {
+            DomainName domainName = DomainName.parse(domains[i]);
+            String suffix = domainName.getSuffix();
+            Address token721 = suffix == null ? null : domainSuffixFor721Map.get(suffix);
+            int status;
+            if (token721 == null) {
+                status = 2;
+            } else if (domainName.getPrefixLength() <= 0 || domainName.getPrefixLength() > DomainPrice.MAX_LENGTH) {
+                status = 3;
+            } else if (!domainName.isValidPrefix()) {
+                status = 4;
+            } else if (domainIndexes.containsKey(domainName.getName())) {
+                status = 1;
+            } else {
+                status = 0;
+            }
+            result[i] = new String[]{String.valueOf(status), token721 == null ? "" : token721.toString()};
+        }
+        return result;
     }
 
     @View
@@ -487,8 +707,105 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
 
     @JSONSerializable
     @View
-    public UserInfo userDomains(@Required Address user) {
-        return userDomains.get(user);
+    public UserInfoView userDomains(@Required Address user) {
+        UserInfo userInfo = userDomains.get(user);
+        if (userInfo == null) {
+            return null;
+        }
+        BigInteger mainDomainId = userInfo.getMainDomainId();
+        UserInfoView view = new UserInfoView(userInfo, mainDomainId == null ? null : this.domain(mainDomainId));
+        DomainIdList actives = activeDomainLists.get(user);
+        for (int i = 0, size = actives == null ? 0 : actives.size(); i < size; i++) {
+            view.addActiveDomain(this.domain(actives.get(i)));
+        }
+        DomainIdList inactives = inactiveDomainLists.get(user);
+        for (int i = 0, size = inactives == null ? 0 : inactives.size(); i < size; i++) {
+            view.addInactiveDomain(this.domain(inactives.get(i)));
+        }
+        return view;
+    }
+
+    /**
+     * 分页查询用户已激活奖励的域名
+     *
+     * @return [[tokenId, 域名], ...]
+     */
+    @JSONSerializable
+    @View
+    public String[][] userActiveDomains(@Required Address user, int offset, int limit) {
+        return this.pageDomains(activeDomainLists.get(user), offset, limit);
+    }
+
+    /**
+     * 分页查询用户未激活奖励的域名
+     *
+     * @return [[tokenId, 域名], ...]
+     */
+    @JSONSerializable
+    @View
+    public String[][] userInactiveDomains(@Required Address user, int offset, int limit) {
+        return this.pageDomains(inactiveDomainLists.get(user), offset, limit);
+    }
+
+    /**
+     * @return [已激活奖励的域名数量, 未激活奖励的域名数量]
+     */
+    @JSONSerializable
+    @View
+    public int[] userDomainCounts(@Required Address user) {
+        UserInfo userInfo = userDomains.get(user);
+        if (userInfo == null) {
+            return new int[]{0, 0};
+        }
+        return new int[]{userInfo.getActiveDomainsSize(), userInfo.getInactiveDomainsSize()};
+    }
+
+    private String[][] pageDomains(DomainIdList list, int offset, int limit) {
+        require(offset >= 0 && limit > 0 && limit <= 100, "offset or limit not good");
+        int size = list == null ? 0 : list.size();
+        int end = offset + limit < size ? offset + limit : size;
+        if (offset >= end) {
+            return new String[0][];
+        }
+        String[][] result = new String[end - offset][];
+        for (int i = offset; i < end; i++) {
+            BigInteger tokenId = list.get(i);
+            result[i - offset] = new String[]{tokenId.toString(), this.domain(tokenId)};
+        }
+        return result;
+    }
+
+    private void addUserDomain(Address user, UserInfo userInfo, BigInteger tokenId, boolean active) {
+        Map<Address, DomainIdList> lists = active ? activeDomainLists : inactiveDomainLists;
+        DomainIdList list = lists.get(user);
+        if (list == null) {
+            list = new DomainIdList();
+            lists.put(user, list);
+        }
+        if (!list.add(tokenId)) {
+            return;
+        }
+        if (active) {
+            userInfo.addActiveDomains(tokenId);
+        } else {
+            userInfo.addInactiveDomains(tokenId);
+        }
+    }
+
+    private void removeUserDomain(Address user, UserInfo userInfo, BigInteger tokenId, boolean active) {
+        Map<Address, DomainIdList> lists = active ? activeDomainLists : inactiveDomainLists;
+        DomainIdList list = lists.get(user);
+        if (list == null || !list.remove(tokenId)) {
+            return;
+        }
+        if (list.size() == 0) {
+            lists.remove(user);
+        }
+        if (active) {
+            userInfo.removeActiveDomains(tokenId);
+        } else {
+            userInfo.removeInactiveDomains(tokenId);
+        }
     }
 
     @View
@@ -502,24 +819,25 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
 
     @View
     public String domain(@Required BigInteger tokenId) {
-        return domains.get(tokenId);
+        IdentityRecord record = identities.get(tokenId);
+        return record == null ? null : record.getDomain();
     }
 
     @View
     public String domainId(@Required String domain) {
-        domain = this.checkDomain(domain, false);
+        domain = DomainName.toLowerCase(domain);
         BigInteger id = domainIndexes.get(domain);
         return id != null ? id.toString() : "";
     }
 
     @View
     public boolean isActiveAward(@Required String domain) {
-        domain = this.checkDomain(domain, false);
-        Boolean active = domainAwards.get(domain);
-        if (active == null) {
+        domain = DomainName.toLowerCase(domain);
+        BigInteger id = domainIndexes.get(domain);
+        if (id == null) {
             return false;
         }
-        return active;
+        return identities.get(id).isActive();
     }
 
     @View
@@ -532,6 +850,11 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         return lastAward.toString();
     }
 
+    @View
+    public long getLastPoolBlock() {
+        return lastPoolBlock;
+    }
+
     @JSONSerializable
     @View
     public Map<String, NextId> getStartIds() {
@@ -546,50 +869,65 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
 
     @View
     public String getRewardCount() {
-        return rewardCount.toString();
+        return String.valueOf(rewardCount);
     }
 
-    private void addSuffixInfo(String suffix, Address _721, BigInteger startId) {
+    private void addSuffixInfo(String suffix, Address _721, BigInteger rangeSize) {
         require(!domainSuffixFor721Map.containsKey(suffix), "Add Suffix: already exist");
+        TokenRange range = this.allocateRange(_721, rangeSize);
         domainSuffixFor721Map.put(suffix, _721);
         token721ForSuffixMap.put(_721, suffix);
-        domainNextIds.put(suffix, new NextId(startId));
-        token721ByStartIds.put(startId, _721);
+        domainNextIds.put(suffix, new NextId(range.getStartId(), range.getEndId()));
         domainPriceMap.put(suffix, new DomainPrice(treasuryManager.ONE_NULS));
     }
 
+    private TokenRange allocateRange(Address _721, BigInteger rangeSize) {
+        require(rangeSize != null && rangeSize.compareTo(BigInteger.ZERO) > 0, "error range size");
+        BigInteger endId = nextStartId.add(rangeSize);
+        TokenRange range = new TokenRange(nextStartId, endId, _721);
+        // 区间总是从nextStartId开始分配，追加后列表仍然有序
+        tokenRanges.add(range);
+        nextStartId = endId;
+        return range;
+    }
+
+    private TokenRange findRange(BigInteger tokenId) {
+        int low = 0;
+        int high = tokenRanges.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            TokenRange range = tokenRanges.get(mid);
+            if (tokenId.compareTo(range.getStartId()) < 0) {
+                high = mid - 1;
+            } else if (tokenId.compareTo(range.getEndId()) >= 0) {
+                low = mid + 1;
+            } else {
+                return range;
+            }
+        }
+        return null;
+    }
+
     @View
     public String tokenURI(String domain) {
-        domain = this.checkDomain(domain, false);
+        domain = DomainName.toLowerCase(domain);
         BigInteger id = domainIndexes.get(domain);
         if (id == null) {
             return "";
         }
-        String address = this.get721ById(id);
-        if (address.isEmpty()) {
-            return "";
-        }
-        NRC721 nrc721 = new NRC721(new Address(address));
-        return nrc721.tokenURI(id);
+        String uri = identities.get(id).getTokenURI();
+        return uri == null ? "" : uri;
     }
 
     @JSONSerializable
     @View
     public String[] userAddress(String domain) {
-        domain = this.checkDomain(domain, false);
+        domain = DomainName.toLowerCase(domain);
         BigInteger id = domainIndexes.get(domain);
         if (id == null) {
             return new String[]{"", ""};
         }
-        String address = this.get721ById(id);
-        if (address.isEmpty()) {
-            return new String[]{"", ""};
-        }
-        NRC721 nrc721 = new NRC721(new Address(address));
-        Address owner = nrc721.ownerOf(id);
-        if (owner == null) {
-            return new String[]{"", ""};
-        }
+        Address owner = identities.get(id).getOwner();
         UserInfo userInfo = userDomains.get(owner);
         if (userInfo == null) {
             return new String[]{"", ""};
@@ -597,6 +935,52 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         return new String[]{owner.toString(), userInfo.getPub() == null ? "" : userInfo.getPub()};
     }
 
+    /**
+     * 批量解析域名，全部读取本地记录，不发起跨合约调用
+     *
+     * @return 每个域名对应 [持有者, 公钥, tokenId, tokenURI, 是否激活奖励]，域名不存在或已销毁时前四项为空
+     */
+    @JSONSerializable
+    @View
+    public String[][] resolveMany(@Required String[] domains) {
+        require(domains.length <= 100, "max size: 100.");
+        String[][] result = new String[domains.length][];
+        for (int i = 0; i < domains.length; i++) {
+            String domain = DomainName.toLowerCase(domains[i]);
+            BigInteger id = domainIndexes.get(domain);
+            if (id == null) {
+                result[i] = new String[]{"", "", "", "", "false"};
+                continue;
+            }
+            IdentityRecord record = identities.get(id);
+            Address owner = record.getOwner();
+            UserInfo userInfo = userDomains.get(owner);
+            String pub = userInfo == null || userInfo.getPub() == null ? "" : userInfo.getPub();
+            String uri = record.getTokenURI();
+            result[i] = new String[]{owner.toString(), pub, id.toString(), uri == null ? "" : uri, String.valueOf(record.isActive())};
+        }
+        return result;
+    }
+
+    /**
+     * 核对本地记录的持有者与NRC721合约中的持有者，任一方不存在该token时对应项为空
+     *
+     * @return [本地持有者, NRC721持有者, 是否一致]
+     */
+    @JSONSerializable
+    @View
+    public String[] reconcileOwner(@Required BigInteger tokenId) {
+        IdentityRecord record = identities.get(tokenId);
+        String mirrorOwner = record == null ? "" : record.getOwner().toString();
+        String token721 = this.get721ById(tokenId);
+        if (token721.isEmpty()) {
+            return new String[]{mirrorOwner, "", "false"};
+        }
+        NRC721 nrc721 = new NRC721(new Address(token721));
+        String owner = nrc721.tokenOwner(tokenId);
+        return new String[]{mirrorOwner, owner, String.valueOf(owner.equals(mirrorOwner))};
+    }
+
     @View
     public String userURI(Address user) {
         UserInfo userInfo = userDomains.get(user);
@@ -617,9 +1001,14 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
 
     @View
     public String get721ById(BigInteger tokenId) {
-        BigInteger key = tokenId.divide(_100000).multiply(_100000);
-        Address token721 = token721ByStartIds.get(key);
-        return token721 == null ? "" : token721.toString();
+        TokenRange range = this.findRange(tokenId);
+        return range == null ? "" : range.getToken721().toString();
+    }
+
+    @JSONSerializable
+    @View
+    public List<TokenRange> getTokenRanges() {
+        return tokenRanges;
     }
 
     @View
@@ -631,17 +1020,37 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         Staking staking = new Staking(treasuryManager.getStaking());
         BigInteger totalAward = staking.ownerTotalConsensusAward();
         BigInteger award = totalAward.subtract(lastAward);
-        accPerShare = accPerShare.add(award.multiply(_1e12).divide(rewardCount));
-        BigInteger pending = BigInteger.valueOf(userInfo.getActiveDomainsSize()).multiply(accPerShare).divide(_1e12).subtract(userInfo.getRewardDebt());
+        BigInteger projectedAccPerShare = RewardAccumulator.accumulate(accPerShare, award, BigInteger.valueOf(rewardCount));
+        BigInteger pending = RewardAccumulator.pending(userInfo.getActiveDomainsSize(), projectedAccPerShare, userInfo.getRewardDebt());
         pending = pending.add(userInfo.getPending());
         return pending.toString();
     }
 
+    @View
+    public int getPayoutQueueSize() {
+        return payoutQueue.size();
+    }
+
+    @View
+    public String getTotalOwed() {
+        return totalOwed.toString();
+    }
+
     @View
     public String getPendingStakingAmount() {
         return treasuryManager.getAvailable().toString();
     }
 
+    @View
+    public String getPendingFee() {
+        return treasuryManager.getPendingFee().toString();
+    }
+
+    @View
+    public String[] getSweepThresholds() {
+        return new String[]{treasuryManager.getFeeThreshold().toString(), treasuryManager.getStakingThreshold().toString()};
+    }
+
     @View
     public String getStakingAmount() {
         return treasuryManager.getStakingAmount().toString();
@@ -653,6 +1062,11 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
     }
 
     private void updatePool() {
+        long blockNumber = Block.number();
+        if (blockNumber == lastPoolBlock) {
+            return;
+        }
+        lastPoolBlock = blockNumber;
         Staking staking = new Staking(treasuryManager.getStaking());
         BigInteger totalAward = staking.ownerTotalConsensusAward();
         if (totalAward.compareTo(BigInteger.ZERO) == 0) {
@@ -664,32 +1078,63 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         } else {
             emit(new DebugEvent("updatePool", "availableAward: " + availableAward + ", totalAward: " + totalAward + ", lastAward: " + lastAward + ", rewardCount: " + rewardCount));
         }
+        if (rewardCount == 0) {
+            // 没有激活奖励的域名，奖励留给之后激活的域名
+            return;
+        }
         BigInteger award = totalAward.subtract(lastAward);
-        accPerShare = accPerShare.add(award.multiply(_1e12).divide(rewardCount));
+        accPerShare = RewardAccumulator.accumulate(accPerShare, award, BigInteger.valueOf(rewardCount));
         lastAward = totalAward;
     }
 
-    private BigInteger _receive(Address user, UserInfo userInfo) {
+    /**
+     * 结算用户奖励到pending并加入发放队列，不做转账
+     */
+    private BigInteger _settle(Address user, UserInfo userInfo) {
         int count = userInfo.getActiveDomainsSize();
         if (count == 0) {
             return BigInteger.ZERO;
         }
-        BigInteger prePending = userInfo.getPending();
-        BigInteger pending = BigInteger.valueOf(count).multiply(accPerShare).divide(_1e12).subtract(userInfo.getRewardDebt());
-        pending = pending.add(prePending);
-        if (pending.compareTo(BigInteger.ZERO) == 0) {
+        BigInteger accrued = RewardAccumulator.pending(count, accPerShare, userInfo.getRewardDebt());
+        if (accrued.compareTo(BigInteger.ZERO) <= 0) {
             return BigInteger.ZERO;
         }
-        BigInteger balance = Msg.address().balance();
-        if (pending.compareTo(treasuryManager.MININUM_TRANSFER_AMOUNT) < 0 || pending.compareTo(balance) > 0) {
-            userInfo.setPending(pending);
-            emit(new UserPendingAward(user.toString(), prePending, pending, balance));
-            return BigInteger.ZERO;
+        userInfo.setPending(userInfo.getPending().add(accrued));
+        totalOwed = totalOwed.add(accrued);
+        if (queuedPayouts.add(user)) {
+            payoutQueue.addLast(user);
+        }
+        return accrued;
+    }
+
+    /**
+     * 发放用户已结算的奖励，金额过小或余额不足时保留在pending中
+     */
+    private boolean _payout(Address user, UserInfo userInfo) {
+        BigInteger pending = userInfo.getPending();
+        if (pending.compareTo(treasuryManager.MININUM_TRANSFER_AMOUNT) < 0 || pending.compareTo(this.payableBalance()) > 0) {
+            return false;
         }
         userInfo.setPending(BigInteger.ZERO);
         userInfo.addReceived(pending);
+        totalOwed = totalOwed.subtract(pending);
         user.transfer(pending);
-        return pending;
+        return true;
+    }
+
+    /**
+     * 奖励未能发放、保留在pending中时通知用户
+     */
+    private void _keepPending(Address user, UserInfo userInfo, BigInteger prePending) {
+        BigInteger pending = userInfo.getPending();
+        if (pending.compareTo(BigInteger.ZERO) > 0) {
+            emit(new UserPendingAward(user.toString(), prePending, pending, this.payableBalance()));
+        }
+    }
+
+    private BigInteger payableBalance() {
+        // 暂存的手续费和待质押金额不能用于发放奖励
+        return Msg.address().balance().subtract(treasuryManager.getBuffered());
     }
 
     private BigInteger extractDecimal(BigInteger na) {
@@ -700,8 +1145,9 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
         return new BigDecimal(na).movePointLeft(8);
     }
 
-    private void _activeAward(Address user, BigInteger userPay, String suffix, String domain, boolean newId, String pub) {
-        BigInteger price = this.getPrice(suffix, domain);
+    private void _activeAward(Address user, BigInteger userPay, DomainName domainName, BigInteger tokenId, boolean newId, String pub) {
+        String domain = domainName.getName();
+        BigInteger price = this.getPrice(domainName);
         require(userPay.compareTo(price) >= 0, "Insufficient payment");
         BigInteger decimalValue = this.extractDecimal(userPay);
         boolean hasDecimal = decimalValue.compareTo(BigInteger.ZERO) > 0;
@@ -712,25 +1158,28 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
             userInfo = new UserInfo();
             userDomains.put(user, userInfo);
         }
-        userInfo.updatePub(pub);
+        this.updatePub(user, userInfo, pub);
         updatePool();
-        _receive(user, userInfo);
+        _settle(user, userInfo);
         if (!newId) {
-            userInfo.removeInactiveDomains(domain);
+            this.removeUserDomain(user, userInfo, tokenId, false);
         }
-        userInfo.addActiveDomains(domain);
-        rewardCount = rewardCount.add(BigInteger.ONE);
-        userInfo.setRewardDebt(BigInteger.valueOf(userInfo.getActiveDomainsSize()).multiply(accPerShare).divide(_1e12));
-        domainAwards.put(domain, true);
+        this.addUserDomain(user, userInfo, tokenId, true);
+        rewardCount++;
+        userInfo.setRewardDebt(RewardAccumulator.accrued(userInfo.getActiveDomainsSize(), accPerShare));
+        identities.get(tokenId).setActive(true);
         treasuryManager.add(userPay);
         emit(new UserActiveAward(user.toString(), userPay, domain, newId));
     }
 
-    private boolean _mintWithTokenURI(Address to, String domain, String tokenURI, boolean reward, String pub) {
+    /**
+     * @param batch 不为空时只登记铸造信息，由调用方按后缀合约统一铸造
+     */
+    private boolean _mintWithTokenURI(Address to, DomainName domainName, String tokenURI, boolean reward, String pub, MintBatch batch) {
+        String domain = domainName.getName();
         require(!domainIndexes.containsKey(domain), "Already exist domain");
-        String[] split = domain.split("\\.");
-        String suffix = split[split.length - 1];
-        require(this.checkDomainPrefix(domain.substring(0, domain.length() - suffix.length() - 1)), "error domain name");
+        require(domainName.isValidPrefix(), "error domain name");
+        String suffix = domainName.getSuffix();
         Address token721 = domainSuffixFor721Map.get(suffix);
         require(token721 != null, "check 721: error domain");
         NextId nextId = domainNextIds.get(suffix);
@@ -740,49 +1189,51 @@ public class NulsDomain extends ReentrancyGuard implements Contract {
             userInfo = new UserInfo();
             userDomains.put(to, userInfo);
         }
-        userInfo.updatePub(pub);
+        this.updatePub(to, userInfo, pub);
+        BigInteger tokenId = nextId.getIdAndAddOne();
+        IdentityRecord record = new IdentityRecord(domain, to);
+        record.setTokenURI(tokenURI);
+        identities.put(tokenId, record);
+        domainIndexes.put(domain, tokenId);
+        emit(new DomainMinted(tokenId, domain, suffix, to));
         if (reward) {
-            /*String prefix = "";
-            for (int i = 0, length = split.length - 1; i < length; i ++) {
-                prefix += split[i];
-                if (i != length - 1) {
-                    prefix += ".";
-                }
-            }*/
-            this._activeAward(to, Msg.value(), suffix, domain, true, null);
+            this._activeAward(to, Msg.value(), domainName, tokenId, true, null);
         } else {
-            userInfo.addInactiveDomains(domain);
+            this.addUserDomain(to, userInfo, tokenId, false);
+        }
+        if (batch == null) {
+            NRC721 nrc721 = new NRC721(token721);
+            nrc721.mintWithTokenURI(to, tokenId, tokenURI);
+        } else {
+            batch.add(token721, to, tokenId, tokenURI);
         }
-        BigInteger tokenId = nextId.getIdAndAddOne();
-        NRC721 nrc721 = new NRC721(token721);
-        nrc721.mintWithTokenURI(to, tokenId, tokenURI);
-        domains.put(tokenId, domain);
-        domainIndexes.put(domain, tokenId);
         return true;
     }
 
-    private boolean checkDomainPrefix(String domainPrefix) {
-        for (int i = 0, length = domainPrefix.length(); i < length; i++) {
-            char c = domainPrefix.charAt(i);
-            if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'))) {
-                return false; // 如果遇到非字母和非数字的字符，返回 false
-            }
+    /**
+     * 公钥首次写入时发出事件，已存在的公钥不会被覆盖
+     */
+    private void updatePub(Address user, UserInfo userInfo, String pub) {
+        if (userInfo.updatePub(pub)) {
+            emit(new UserPubUpdated(user, pub));
+        }
+    }
+
+    private void _mintBatch(MintBatch batch) {
+        for (Address token721 : batch.token721s()) {
+            NRC721 nrc721 = new NRC721(token721);
+            nrc721.batchMintWithTokenURI(batch.tos(token721), batch.tokenIds(token721), batch.tokenURIs(token721));
         }
-        return true;
     }
 
-    private BigInteger getPrice(String suffix, String domain) {
-        require(domain != null && suffix != null, "Error domain");
+    private BigInteger getPrice(DomainName domainName) {
+        String suffix = domainName.getSuffix();
+        require(domainName.getName() != null && suffix != null, "Error domain");
         DomainPrice domainPrice = domainPriceMap.get(suffix);
         require(domainPrice != null, "Domain Suffix Not Exist");
-        Map<Integer, BigInteger> priceMap = domainPrice.getDomainPrice();
-        int prefixLength = domain.length() - (suffix.length() + 1);
-        require(prefixLength > 0 && prefixLength <= 64, "Error domain length");
-        BigInteger price = priceMap.get(prefixLength);
-        if (price == null) {
-            price = domainPrice.getDefaultPrice();
-        }
-        return price;
+        int prefixLength = domainName.getPrefixLength();
+        require(prefixLength > 0 && prefixLength <= DomainPrice.MAX_LENGTH, "Error domain length");
+        return domainPrice.getPrice(prefixLength);
     }
 
     private UserInfo checkUserHistory() {
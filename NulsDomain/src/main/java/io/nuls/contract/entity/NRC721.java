@@ -51,6 +51,14 @@ public class NRC721 {
         contract.callWithReturnValue("mintWithTokenURI", "", args, BigInteger.ZERO);
     }
 
+    public void batchMintWithTokenURI(String[] tos, String[] tokenIds, String[] tokenURIs) {
+        String[][] args = new String[3][];
+        args[0] = tos;
+        args[1] = tokenIds;
+        args[2] = tokenURIs;
+        contract.callWithReturnValue("minterBatchMintWithTokenURI", "", args, BigInteger.ZERO);
+    }
+
     public void setTokenURI(BigInteger tokenId, String uri) {
         String[][] args = new String[2][];
         args[0] = new String[]{tokenId.toString()};
@@ -69,6 +77,16 @@ public class NRC721 {
         return null;
     }
 
+    /**
+     * @return token持有者，token不存在时返回空字符串
+     */
+    public String tokenOwner(BigInteger tokenId) {
+        String[][] args = new String[1][];
+        args[0] = new String[]{tokenId.toString()};
+        String result = contract.callWithReturnValue("tokenOwner", "", args, BigInteger.ZERO);
+        return result == null ? "" : result;
+    }
+
     public String tokenURI(BigInteger tokenId) {
         String[][] args = new String[1][];
         args[0] = new String[]{tokenId.toString()};
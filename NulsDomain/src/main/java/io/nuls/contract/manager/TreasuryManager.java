@@ -47,11 +47,19 @@ public class TreasuryManager {
     private Address staking;
     private Address treasury;
     private BigInteger feeRate;
+    // 待转入国库的手续费
+    private BigInteger pendingFee;
+    // sweep时手续费、待质押金额达到阈值才转出
+    private BigInteger feeThreshold;
+    private BigInteger stakingThreshold;
 
     public TreasuryManager() {
         this.available = ZERO;
         this.stakingAmount = ZERO;
         this.feeRate = valueOf(20);
+        this.pendingFee = ZERO;
+        this.feeThreshold = ONE_NULS.multiply(valueOf(100));
+        this.stakingThreshold = _2000_NULS;
     }
 
     public void setStaking(Address staking) {
@@ -89,18 +97,62 @@ public class TreasuryManager {
         return this.stakingAmount;
     }
 
+    public BigInteger getPendingFee() {
+        return this.pendingFee;
+    }
+
+    /**
+     * 合约余额中暂存的手续费和待质押金额，不能用于发放奖励
+     */
+    public BigInteger getBuffered() {
+        return this.pendingFee.add(this.available);
+    }
+
+    public BigInteger getFeeThreshold() {
+        return feeThreshold;
+    }
+
+    public BigInteger getStakingThreshold() {
+        return stakingThreshold;
+    }
+
+    public void setThresholds(BigInteger feeThreshold, BigInteger stakingThreshold) {
+        require(feeThreshold.compareTo(MININUM_TRANSFER_AMOUNT) >= 0, "error feeThreshold");
+        require(stakingThreshold.compareTo(ONE_NULS) >= 0, "error stakingThreshold");
+        this.feeThreshold = feeThreshold;
+        this.stakingThreshold = stakingThreshold;
+    }
+
+    /**
+     * 只累计手续费和待质押金额，由sweep统一转出
+     */
     public void add(BigInteger value) {
         BigInteger fee = value.multiply(feeRate).divide(valueOf(100));
         value = value.subtract(fee);
-        this.treasury.transfer(fee);
-
-        Staking staking = new Staking(this.staking);
+        this.pendingFee = this.pendingFee.add(fee);
         this.available = this.available.add(value);
-        if (available.compareTo(_2000_NULS) >= 0) {
-            staking.depositForOwn(available);
-            stakingAmount = stakingAmount.add(available);
+    }
+
+    /**
+     * 手续费达到阈值则转入国库，待质押金额达到阈值则质押到staking合约
+     *
+     * @return [转入国库的手续费, 质押的金额]
+     */
+    public BigInteger[] sweep() {
+        BigInteger fee = ZERO;
+        BigInteger deposit = ZERO;
+        if (pendingFee.compareTo(ZERO) > 0 && pendingFee.compareTo(feeThreshold) >= 0) {
+            fee = pendingFee;
+            pendingFee = ZERO;
+            this.treasury.transfer(fee);
+        }
+        if (available.compareTo(ZERO) > 0 && available.compareTo(stakingThreshold) >= 0) {
+            deposit = available;
             available = ZERO;
+            stakingAmount = stakingAmount.add(deposit);
+            new Staking(this.staking).depositForOwn(deposit);
         }
+        return new BigInteger[]{fee, deposit};
     }
 
     /*public void subtract(BigInteger value) {
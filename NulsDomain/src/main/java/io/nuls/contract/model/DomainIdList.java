@@ -0,0 +1,77 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户持有域名的tokenId列表，支持按位置分页，删除时用末位元素填补空位
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DomainIdList {
+    private final List<BigInteger> ids = new ArrayList<BigInteger>();
+    private final Map<BigInteger, Integer> positions = new HashMap<BigInteger, Integer>();
+
+    public boolean add(BigInteger tokenId) {
+        if (positions.containsKey(tokenId)) {
+            return false;
+        }
+        positions.put(tokenId, ids.size());
+        ids.add(tokenId);
+        return true;
+    }
+
+    public boolean remove(BigInteger tokenId) {
+        Integer position = positions.remove(tokenId);
+        if (position == null) {
+            return false;
+        }
+        int lastIndex = ids.size() - 1;
+        if (position != lastIndex) {
+            BigInteger last = ids.get(lastIndex);
+            ids.set(position, last);
+            positions.put(last, position);
+        }
+        ids.remove(lastIndex);
+        return true;
+    }
+
+    public boolean contains(BigInteger tokenId) {
+        return positions.containsKey(tokenId);
+    }
+
+    public BigInteger get(int index) {
+        return ids.get(index);
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
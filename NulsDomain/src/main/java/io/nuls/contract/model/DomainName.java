@@ -0,0 +1,117 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+/**
+ * 域名解析结果，一次遍历完成小写转换、后缀定位和前缀字符校验
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DomainName {
+    // 小写后的完整域名
+    private final String name;
+    // 最后一个'.'之后的部分，没有'.'时为null
+    private final String suffix;
+    // 最后一个'.'之前的长度，没有'.'时为-1
+    private final int prefixLength;
+    // 前缀是否只包含小写字母和数字
+    private final boolean validPrefix;
+
+    private DomainName(String name, String suffix, int prefixLength, boolean validPrefix) {
+        this.name = name;
+        this.suffix = suffix;
+        this.prefixLength = prefixLength;
+        this.validPrefix = validPrefix;
+    }
+
+    public static DomainName parse(String domain) {
+        if (domain == null) {
+            return new DomainName(null, null, -1, false);
+        }
+        char[] chars = null;
+        int lastDot = -1;
+        boolean invalid = false;
+        boolean validPrefix = false;
+        for (int i = 0, length = domain.length(); i < length; i++) {
+            char c = domain.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (chars == null) {
+                    chars = domain.toCharArray();
+                }
+                c = (char) (c + 32);
+                chars[i] = c;
+            }
+            if (c == '.') {
+                // 前缀截止到当前'.'，之后若再出现'.'，当前'.'即属于前缀中的非法字符
+                lastDot = i;
+                validPrefix = !invalid;
+                invalid = true;
+            } else if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'))) {
+                invalid = true;
+            }
+        }
+        String name = chars == null ? domain : new String(chars);
+        if (lastDot < 0) {
+            return new DomainName(name, null, -1, false);
+        }
+        return new DomainName(name, name.substring(lastDot + 1), lastDot, validPrefix);
+    }
+
+    /**
+     * 大写字母转小写，不含大写字母时直接返回原字符串
+     */
+    public static String toLowerCase(String str) {
+        if (str == null) {
+            return null;
+        }
+        char[] chars = null;
+        for (int i = 0, length = str.length(); i < length; i++) {
+            char c = str.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (chars == null) {
+                    chars = str.toCharArray();
+                }
+                chars[i] = (char) (c + 32);
+            }
+        }
+        return chars == null ? str : new String(chars);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    public boolean isValidPrefix() {
+        return validPrefix;
+    }
+}
@@ -24,31 +24,54 @@
 package io.nuls.contract.model;
 
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * @author: PierreLuo
  * @date: 2024/11/28
  */
 public class DomainPrice {
-    private Map<Integer, BigInteger> domainPrice;
+    // 域名前缀最大长度
+    public static final int MAX_LENGTH = 64;
+    // 按长度定价，ladder[length - 1]，长度不小于defaultPriceLength时使用默认价格
+    private BigInteger[] ladder;
     private BigInteger defaultPrice;
     private int defaultPriceLength;
 
     public DomainPrice(BigInteger ONE_NULS) {
-        domainPrice = new HashMap<Integer, BigInteger>();
-        domainPrice.put(1, ONE_NULS.multiply(BigInteger.valueOf(10000)));
-        domainPrice.put(2, ONE_NULS.multiply(BigInteger.valueOf(5000)));
-        domainPrice.put(3, ONE_NULS.multiply(BigInteger.valueOf(1000)));
-        domainPrice.put(4, ONE_NULS.multiply(BigInteger.valueOf(120)));
-        domainPrice.put(5, ONE_NULS.multiply(BigInteger.valueOf(110)));
+        ladder = new BigInteger[MAX_LENGTH];
+        ladder[0] = ONE_NULS.multiply(BigInteger.valueOf(10000));
+        ladder[1] = ONE_NULS.multiply(BigInteger.valueOf(5000));
+        ladder[2] = ONE_NULS.multiply(BigInteger.valueOf(1000));
+        ladder[3] = ONE_NULS.multiply(BigInteger.valueOf(120));
+        ladder[4] = ONE_NULS.multiply(BigInteger.valueOf(110));
         this.defaultPrice = ONE_NULS.multiply(BigInteger.valueOf(100));
         this.defaultPriceLength = 6;
     }
 
-    public Map<Integer, BigInteger> getDomainPrice() {
-        return domainPrice;
+    public BigInteger getPrice(int length) {
+        if (length >= 1 && length < defaultPriceLength) {
+            return ladder[length - 1];
+        }
+        return defaultPrice;
+    }
+
+    /**
+     * 修改已有长度的价格
+     *
+     * @return 修改前的价格
+     */
+    public BigInteger setPrice(int length, BigInteger price) {
+        BigInteger prePrice = ladder[length - 1];
+        ladder[length - 1] = price;
+        return prePrice;
+    }
+
+    /**
+     * 为长度defaultPriceLength的域名单独定价，默认价格长度后移一位
+     */
+    public void appendPrice(BigInteger price) {
+        ladder[defaultPriceLength - 1] = price;
+        defaultPriceLength++;
     }
 
     public BigInteger getDefaultPrice() {
@@ -62,8 +85,4 @@ public class DomainPrice {
     public int getDefaultPriceLength() {
         return defaultPriceLength;
     }
-
-    public void setDefaultPriceLength(int defaultPriceLength) {
-        this.defaultPriceLength = defaultPriceLength;
-    }
 }
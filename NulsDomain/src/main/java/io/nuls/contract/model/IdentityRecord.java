@@ -0,0 +1,75 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import io.nuls.contract.sdk.Address;
+
+/**
+ * 以tokenId为键的域名记录，域名字符串只保存一份
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class IdentityRecord {
+    private final String domain;
+    // 是否已激活奖励
+    private boolean active;
+    // 持有者，铸造和domainTransfer回调时同步更新，domainBurn回调时整条记录删除，避免跨合约查询ownerOf
+    private Address owner;
+    // tokenURI，NRC721合约只允许本合约修改，铸造和setTokenURI时同步更新
+    private String tokenURI;
+
+    public IdentityRecord(String domain, Address owner) {
+        this.domain = domain;
+        this.owner = owner;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public Address getOwner() {
+        return owner;
+    }
+
+    public void setOwner(Address owner) {
+        this.owner = owner;
+    }
+
+    public String getTokenURI() {
+        return tokenURI;
+    }
+
+    public void setTokenURI(String tokenURI) {
+        this.tokenURI = tokenURI;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import io.nuls.contract.sdk.Address;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按后缀合约归集的批量铸造信息，每个NRC721合约只发起一次跨合约调用
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class MintBatch {
+    private final Map<Address, Group> groups = new HashMap<Address, Group>();
+
+    public void add(Address token721, Address to, BigInteger tokenId, String tokenURI) {
+        Group group = groups.get(token721);
+        if (group == null) {
+            group = new Group();
+            groups.put(token721, group);
+        }
+        group.tos.add(to.toString());
+        group.tokenIds.add(tokenId.toString());
+        group.tokenURIs.add(tokenURI == null ? "" : tokenURI);
+    }
+
+    public Set<Address> token721s() {
+        return groups.keySet();
+    }
+
+    public String[] tos(Address token721) {
+        List<String> list = groups.get(token721).tos;
+        return list.toArray(new String[list.size()]);
+    }
+
+    public String[] tokenIds(Address token721) {
+        List<String> list = groups.get(token721).tokenIds;
+        return list.toArray(new String[list.size()]);
+    }
+
+    public String[] tokenURIs(Address token721) {
+        List<String> list = groups.get(token721).tokenURIs;
+        return list.toArray(new String[list.size()]);
+    }
+
+    static class Group {
+        private final List<String> tos = new ArrayList<String>();
+        private final List<String> tokenIds = new ArrayList<String>();
+        private final List<String> tokenURIs = new ArrayList<String>();
+    }
+}
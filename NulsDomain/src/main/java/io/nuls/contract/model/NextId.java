@@ -24,6 +24,10 @@
 package io.nuls.contract.model;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.nuls.contract.sdk.Utils.require;
 
 /**
  * @author: PierreLuo
@@ -31,18 +35,38 @@ import java.math.BigInteger;
  */
 public class NextId {
     private BigInteger id;
+    // 当前区间的结束id(不包含)
+    private BigInteger end;
+    // 当前区间用完后依次启用的扩展区间
+    private final List<TokenRange> pendingRanges;
 
-    public NextId(BigInteger id) {
+    public NextId(BigInteger id, BigInteger end) {
         this.id = id;
+        this.end = end;
+        this.pendingRanges = new ArrayList<TokenRange>();
     }
 
     public BigInteger getIdAndAddOne() {
+        if (this.id.compareTo(this.end) >= 0) {
+            require(!pendingRanges.isEmpty(), "Domain id range exhausted");
+            TokenRange range = pendingRanges.remove(0);
+            this.id = range.getStartId();
+            this.end = range.getEndId();
+        }
         BigInteger result = this.id;
         this.id = this.id.add(BigInteger.ONE);
         return result;
     }
 
+    public void addRange(TokenRange range) {
+        this.pendingRanges.add(range);
+    }
+
     public BigInteger getId() {
         return id;
     }
+
+    public BigInteger getEnd() {
+        return end;
+    }
 }
@@ -0,0 +1,58 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import io.nuls.contract.sdk.Address;
+
+import java.math.BigInteger;
+
+/**
+ * 分配给某个后缀合约的tokenId区间 [startId, endId)
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class TokenRange {
+    private BigInteger startId;
+    private BigInteger endId;
+    private Address token721;
+
+    public TokenRange(BigInteger startId, BigInteger endId, Address token721) {
+        this.startId = startId;
+        this.endId = endId;
+        this.token721 = token721;
+    }
+
+    public BigInteger getStartId() {
+        return startId;
+    }
+
+    public BigInteger getEndId() {
+        return endId;
+    }
+
+    public Address getToken721() {
+        return token721;
+    }
+}
@@ -24,8 +24,6 @@
 package io.nuls.contract.model;
 
 import java.math.BigInteger;
-import java.util.HashSet;
-import java.util.Set;
 
 import static io.nuls.contract.sdk.Utils.require;
 
@@ -34,19 +32,19 @@ import static io.nuls.contract.sdk.Utils.require;
  * @date: 2024/11/14
  */
 public class UserInfo {
-    private String mainDomain;
+    // 主域名的tokenId
+    private BigInteger mainDomainId;
     private String uri;
     private String pub;
-    private final Set<String> activeDomains;
-    private final Set<String> inactiveDomains;
+    // 持有的已激活、未激活奖励的域名数量，域名列表保存在合约的DomainIdList中
+    private int activeCount;
+    private int inactiveCount;
     private BigInteger received;
     private BigInteger pending;
     private BigInteger rewardDebt;
     private int historyQuota;
 
     public UserInfo() {
-        this.activeDomains = new HashSet<String>();
-        this.inactiveDomains = new HashSet<String>();
         this.pending = BigInteger.ZERO;
         this.received = BigInteger.ZERO;
         this.rewardDebt = BigInteger.ZERO;
@@ -69,14 +67,6 @@ public class UserInfo {
         this.received = this.received.add(received);
     }
 
-    public boolean existActive(String domain) {
-        return activeDomains.contains(domain);
-    }
-
-    public boolean existInactive(String domain) {
-        return inactiveDomains.contains(domain);
-    }
-
     public String getUri() {
         return uri;
     }
@@ -89,58 +79,63 @@ public class UserInfo {
         return pub;
     }
 
-    public void updatePub(String pub) {
+    /**
+     * @return 公钥是否被写入
+     */
+    public boolean updatePub(String pub) {
         if (pub == null)
-            return;
+            return false;
         if (this.pub == null) {
             this.pub = pub;
+            return true;
         }
+        return false;
     }
 
-    public String getMainDomain() {
-        return mainDomain;
+    public BigInteger getMainDomainId() {
+        return mainDomainId;
     }
 
-    public void setMainDomain(String mainDomain) {
-        this.mainDomain = mainDomain;
+    public void setMainDomainId(BigInteger mainDomainId) {
+        this.mainDomainId = mainDomainId;
     }
 
     public int getActiveDomainsSize() {
-        return activeDomains.size();
+        return activeCount;
     }
 
-    public void addActiveDomains(String domain) {
-        require(this.activeDomains.size() + this.inactiveDomains.size() <= 200, "domains limit");
-        if (mainDomain == null) {
-            mainDomain = domain;
+    public void addActiveDomains(BigInteger tokenId) {
+        require(this.activeCount + this.inactiveCount <= 200, "domains limit");
+        if (mainDomainId == null) {
+            mainDomainId = tokenId;
         }
-        this.activeDomains.add(domain);
+        this.activeCount++;
     }
 
-    public void removeActiveDomains(String domain) {
-        this.activeDomains.remove(domain);
-        if (mainDomain != null && mainDomain.equals(domain)) {
-            mainDomain = null;
+    public void removeActiveDomains(BigInteger tokenId) {
+        this.activeCount--;
+        if (mainDomainId != null && mainDomainId.equals(tokenId)) {
+            mainDomainId = null;
         }
     }
 
-    public void addInactiveDomains(String domain) {
-        require(this.activeDomains.size() + this.inactiveDomains.size() <= 200, "domains limit");
-        if (mainDomain == null) {
-            mainDomain = domain;
+    public void addInactiveDomains(BigInteger tokenId) {
+        require(this.activeCount + this.inactiveCount <= 200, "domains limit");
+        if (mainDomainId == null) {
+            mainDomainId = tokenId;
         }
-        this.inactiveDomains.add(domain);
+        this.inactiveCount++;
     }
 
-    public void removeInactiveDomains(String domain) {
-        this.inactiveDomains.remove(domain);
-        if (mainDomain != null && mainDomain.equals(domain)) {
-            mainDomain = null;
+    public void removeInactiveDomains(BigInteger tokenId) {
+        this.inactiveCount--;
+        if (mainDomainId != null && mainDomainId.equals(tokenId)) {
+            mainDomainId = null;
         }
     }
 
     public int getInactiveDomainsSize() {
-        return inactiveDomains.size();
+        return inactiveCount;
     }
 
     public BigInteger getRewardDebt() {
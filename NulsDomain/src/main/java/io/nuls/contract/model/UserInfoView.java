@@ -0,0 +1,100 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * userDomains查询返回的用户信息，域名以字符串展示
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class UserInfoView {
+    private String mainDomain;
+    private String uri;
+    private String pub;
+    private List<String> activeDomains = new ArrayList<String>();
+    private List<String> inactiveDomains = new ArrayList<String>();
+    private BigInteger received;
+    private BigInteger pending;
+    private BigInteger rewardDebt;
+    private int historyQuota;
+
+    public UserInfoView(UserInfo userInfo, String mainDomain) {
+        this.mainDomain = mainDomain;
+        this.uri = userInfo.getUri();
+        this.pub = userInfo.getPub();
+        this.received = userInfo.getReceived();
+        this.pending = userInfo.getPending();
+        this.rewardDebt = userInfo.getRewardDebt();
+        this.historyQuota = userInfo.getHistoryQuota();
+    }
+
+    public void addActiveDomain(String domain) {
+        this.activeDomains.add(domain);
+    }
+
+    public void addInactiveDomain(String domain) {
+        this.inactiveDomains.add(domain);
+    }
+
+    public String getMainDomain() {
+        return mainDomain;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getPub() {
+        return pub;
+    }
+
+    public List<String> getActiveDomains() {
+        return activeDomains;
+    }
+
+    public List<String> getInactiveDomains() {
+        return inactiveDomains;
+    }
+
+    public BigInteger getReceived() {
+        return received;
+    }
+
+    public BigInteger getPending() {
+        return pending;
+    }
+
+    public BigInteger getRewardDebt() {
+        return rewardDebt;
+    }
+
+    public int getHistoryQuota() {
+        return historyQuota;
+    }
+}
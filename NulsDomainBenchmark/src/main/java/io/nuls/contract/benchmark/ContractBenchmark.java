@@ -0,0 +1,166 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.benchmark;
+
+import io.nuls.contract.harness.CallStats;
+import io.nuls.contract.harness.Chain;
+import io.nuls.contract.harness.DomainFixture;
+import io.nuls.contract.harness.Receipt;
+import io.nuls.contract.sdk.Address;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import static io.nuls.contract.harness.Chain.arg;
+import static io.nuls.contract.harness.Chain.nuls;
+
+/**
+ * 合约热点入口的耗时、内存分配、跨合约调用和事件数量:
+ * 耗时为每次调用的平均值，内存分配使用-prof gc查看(gc.alloc.rate.norm为每次调用分配的字节数)，
+ * 跨合约调用、转账、外部命令和事件为每轮的累计值，除以同一行的invocations即为每次调用的数量
+ * <p>
+ * 每轮测量前重新部署合约，每次调用前出一个新区块，与链上每笔交易位于不同区块的情况一致
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractBenchmark {
+
+    private static final BigInteger RICH = BigInteger.TEN.pow(30);
+    private static final int MINTS_PER_ACCOUNT = 100;
+
+    @State(Scope.Thread)
+    public static class Contracts {
+        DomainFixture fixture;
+        Chain chain;
+        Address minter;
+        String minterPub;
+        int nextName;
+        Address[] holders;
+        BigInteger tokenId;
+        int holder;
+        Address[] stakers;
+        int nextStaker;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            fixture = new DomainFixture();
+            chain = fixture.chain;
+            chain.setRecordEvents(false);
+            // .ai默认只有10万个tokenId，追加足够的区间
+            chain.call(fixture.owner, fixture.domain, BigInteger.ZERO, "addSuffixRange", arg("ai"), arg(100000000));
+            nextName = 0;
+
+            holders = new Address[]{fixture.user(), fixture.user()};
+            fixture.mint(holders[0], "holder.ai");
+            // 再铸造一个域名，避免转出唯一的激活域名后奖池为空
+            fixture.mint(fixture.user(), "other1.ai");
+            tokenId = fixture.tokenId("holder.ai");
+            holder = 0;
+
+            fixture.addAgent("agent1");
+            stakers = new Address[100];
+            for (int i = 0; i < stakers.length; i++) {
+                stakers[i] = fixture.user();
+            }
+            nextStaker = 0;
+            fixture.consensusReward(nuls(10));
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long invocations;
+        public long crossContractCalls;
+        public long transfers;
+        public long externalCmds;
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            invocations = 0;
+            crossContractCalls = 0;
+            transfers = 0;
+            externalCmds = 0;
+            events = 0;
+        }
+
+        Receipt add(Receipt receipt) {
+            CallStats stats = receipt.getStats();
+            invocations++;
+            crossContractCalls += stats.getCrossContractCalls();
+            transfers += stats.getTransfers();
+            externalCmds += stats.getExternalCmds();
+            events += stats.getEvents();
+            return receipt;
+        }
+    }
+
+    @Benchmark
+    public Receipt mint(Contracts s, Counters counters) {
+        s.chain.mine(1);
+        if (s.nextName % MINTS_PER_ACCOUNT == 0) {
+            // 每个地址最多持有约200个域名，定期换一个铸造地址
+            s.minter = s.chain.account(RICH);
+            s.minterPub = s.chain.publicKey(s.minter);
+        }
+        String name = "bench" + (s.nextName++) + ".ai";
+        return counters.add(s.chain.call(s.minter, s.fixture.domain, nuls(100), "mint", arg(name), arg(s.minterPub)));
+    }
+
+    @Benchmark
+    public Receipt depositForOwn(Contracts s, Counters counters) {
+        s.chain.mine(1);
+        Address staker = s.stakers[s.nextStaker];
+        s.nextStaker = (s.nextStaker + 1) % s.stakers.length;
+        return counters.add(s.chain.call(staker, s.fixture.staking, nuls(1), "depositForOwn"));
+    }
+
+    @Benchmark
+    public Receipt transferFrom(Contracts s, Counters counters) {
+        s.chain.mine(1);
+        Address from = s.holders[s.holder];
+        s.holder = 1 - s.holder;
+        Address to = s.holders[s.holder];
+        return counters.add(s.chain.call(from, s.fixture.nrc721, BigInteger.ZERO, "transferFrom", arg(from), arg(to), arg(s.tokenId)));
+    }
+}
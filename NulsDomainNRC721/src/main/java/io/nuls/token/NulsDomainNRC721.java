@@ -27,7 +27,8 @@ import io.nuls.contract.sdk.Address;
 import io.nuls.contract.sdk.Contract;
 import io.nuls.contract.sdk.Msg;
 import io.nuls.contract.sdk.annotation.Required;
-import io.nuls.token.base.NRC721MetadataBase;
+import io.nuls.contract.sdk.annotation.View;
+import io.nuls.token.base.NRC721EnumerableBase;
 import io.nuls.token.entity.Domain;
 
 import java.math.BigInteger;
@@ -39,7 +40,7 @@ import static io.nuls.contract.sdk.Utils.revert;
  * @author: PierreLuo
  * @date: 2019-06-10
  */
-public class NulsDomainNRC721 extends NRC721MetadataBase implements Contract {
+public class NulsDomainNRC721 extends NRC721EnumerableBase implements Contract {
 
     private boolean initialized = false;
     private Address domain;
@@ -83,6 +84,21 @@ public class NulsDomainNRC721 extends NRC721MetadataBase implements Contract {
         _domain.domainTransfer(from, to, tokenId);
     }
 
+    /**
+     * 批量转移，所有token转移完成后只回调一次domain合约
+     */
+    public void batchTransferFrom(@Required Address from, @Required Address to, @Required String[] tokenIds) {
+        require(tokenIds.length > 0 && tokenIds.length <= 100, "max size: 100.");
+        Address sender = Msg.sender();
+        for (int i = 0; i < tokenIds.length; i++) {
+            BigInteger tokenId = new BigInteger(tokenIds[i]);
+            require(isApprovedOrOwner(sender, tokenId), "NRC721: transfer caller is not owner nor approved");
+            super.transferFromBase(from, to, tokenId);
+        }
+        Domain _domain = new Domain(domain);
+        _domain.domainTransferBatch(from, to, tokenIds);
+    }
+
     @Override
     public void setTokenURI(BigInteger tokenId, String uri) {
         onlyMinter();
@@ -93,6 +109,16 @@ public class NulsDomainNRC721 extends NRC721MetadataBase implements Contract {
         onlyOfficial();
         require(isApprovedOrOwner(Msg.sender(), tokenId), "NRC721: transfer caller is not owner nor approved");
         super.burnBase(owner, tokenId);
+        Domain _domain = new Domain(domain);
+        _domain.domainBurn(owner, tokenId);
+    }
+
+    /**
+     * token不存在时返回空字符串，供domain合约核对持有者时使用，ownerOf对不存在的token会回滚
+     */
+    @View
+    public String tokenOwner(@Required BigInteger tokenId) {
+        return exists(tokenId) ? ownerOf(tokenId).toString() : "";
     }
 
     public boolean batchMint(@Required String[] tos, @Required String[] tokenIds) {
@@ -107,6 +133,18 @@ public class NulsDomainNRC721 extends NRC721MetadataBase implements Contract {
 
     public boolean batchMintWithTokenURI(@Required String[] tos, @Required String[] tokenIds, @Required String[] tokenURIs) {
         onlyOfficial();
+        return this._batchMintWithTokenURI(tos, tokenIds, tokenURIs);
+    }
+
+    /**
+     * 铸造合约(domain合约)批量铸造，每个后缀合约一次跨合约调用完成整批铸造
+     */
+    public boolean minterBatchMintWithTokenURI(@Required String[] tos, @Required String[] tokenIds, @Required String[] tokenURIs) {
+        onlyMinter();
+        return this._batchMintWithTokenURI(tos, tokenIds, tokenURIs);
+    }
+
+    private boolean _batchMintWithTokenURI(String[] tos, String[] tokenIds, String[] tokenURIs) {
         require(tos.length <= 100, "max size: 100.");
         require(tos.length == tokenIds.length && tokenIds.length == tokenURIs.length, "array size error.");
         for (int i = 0;i<tos.length;i++) {
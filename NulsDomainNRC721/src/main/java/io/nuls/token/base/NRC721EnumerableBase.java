@@ -0,0 +1,169 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.token.base;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.annotation.JSONSerializable;
+import io.nuls.contract.sdk.annotation.Required;
+import io.nuls.contract.sdk.annotation.View;
+import io.nuls.token.interfaces.INRC721Enumerable;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.nuls.contract.sdk.Utils.require;
+
+/**
+ * 持有者和全局的token索引，转移和销毁时用末位元素填补空位，保持O(1)
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class NRC721EnumerableBase extends NRC721MetadataBase implements INRC721Enumerable {
+
+    private Map<Address, List<BigInteger>> ownedTokens = new HashMap<Address, List<BigInteger>>();
+    private Map<BigInteger, Integer> ownedTokensIndex = new HashMap<BigInteger, Integer>();
+    private List<BigInteger> allTokens = new ArrayList<BigInteger>();
+    private Map<BigInteger, Integer> allTokensIndex = new HashMap<BigInteger, Integer>();
+
+    public NRC721EnumerableBase() {
+        super.registerInterface("INRC721Enumerable");
+    }
+
+    @Override
+    @View
+    public int totalSupply() {
+        return allTokens.size();
+    }
+
+    @Override
+    @View
+    public BigInteger tokenByIndex(@Required int index) {
+        require(index >= 0 && index < allTokens.size(), "NRC721Enumerable: global index out of bounds");
+        return allTokens.get(index);
+    }
+
+    @Override
+    @View
+    public BigInteger tokenOfOwnerByIndex(@Required Address owner, @Required int index) {
+        List<BigInteger> tokens = ownedTokens.get(owner);
+        require(tokens != null && index >= 0 && index < tokens.size(), "NRC721Enumerable: owner index out of bounds");
+        return tokens.get(index);
+    }
+
+    @Override
+    @View
+    @JSONSerializable
+    public String[] tokensOfOwner(@Required Address owner, @Required int offset, @Required int limit) {
+        require(offset >= 0 && limit > 0 && limit <= 100, "NRC721Enumerable: error page");
+        List<BigInteger> tokens = ownedTokens.get(owner);
+        int size = tokens == null ? 0 : tokens.size();
+        if (offset >= size) {
+            return new String[0];
+        }
+        int end = offset + limit < size ? offset + limit : size;
+        String[] result = new String[end - offset];
+        for (int i = offset; i < end; i++) {
+            result[i - offset] = tokens.get(i).toString();
+        }
+        return result;
+    }
+
+    @Override
+    protected void mintBase(Address to, BigInteger tokenId) {
+        super.mintBase(to, tokenId);
+        addTokenToOwnerEnumeration(to, tokenId);
+        addTokenToAllTokensEnumeration(tokenId);
+    }
+
+    @Override
+    protected void mintWithTokenURIBase(Address to, BigInteger tokenId, String tokenURI) {
+        // NRC721MetadataBase调用的是super.mintBase，不会经过上面的mintBase
+        super.mintWithTokenURIBase(to, tokenId, tokenURI);
+        addTokenToOwnerEnumeration(to, tokenId);
+        addTokenToAllTokensEnumeration(tokenId);
+    }
+
+    @Override
+    protected void transferFromBase(Address from, Address to, BigInteger tokenId) {
+        super.transferFromBase(from, to, tokenId);
+        if (!from.equals(to)) {
+            removeTokenFromOwnerEnumeration(from, tokenId);
+            addTokenToOwnerEnumeration(to, tokenId);
+        }
+    }
+
+    @Override
+    protected void burnBase(Address owner, BigInteger tokenId) {
+        super.burnBase(owner, tokenId);
+        removeTokenFromOwnerEnumeration(owner, tokenId);
+        removeTokenFromAllTokensEnumeration(tokenId);
+    }
+
+    private void addTokenToOwnerEnumeration(Address to, BigInteger tokenId) {
+        List<BigInteger> tokens = ownedTokens.get(to);
+        if (tokens == null) {
+            tokens = new ArrayList<BigInteger>();
+            ownedTokens.put(to, tokens);
+        }
+        ownedTokensIndex.put(tokenId, tokens.size());
+        tokens.add(tokenId);
+    }
+
+    private void addTokenToAllTokensEnumeration(BigInteger tokenId) {
+        allTokensIndex.put(tokenId, allTokens.size());
+        allTokens.add(tokenId);
+    }
+
+    private void removeTokenFromOwnerEnumeration(Address from, BigInteger tokenId) {
+        List<BigInteger> tokens = ownedTokens.get(from);
+        int lastIndex = tokens.size() - 1;
+        int tokenIndex = ownedTokensIndex.get(tokenId);
+        if (tokenIndex != lastIndex) {
+            BigInteger lastTokenId = tokens.get(lastIndex);
+            tokens.set(tokenIndex, lastTokenId);
+            ownedTokensIndex.put(lastTokenId, tokenIndex);
+        }
+        tokens.remove(lastIndex);
+        ownedTokensIndex.remove(tokenId);
+        if (tokens.isEmpty()) {
+            ownedTokens.remove(from);
+        }
+    }
+
+    private void removeTokenFromAllTokensEnumeration(BigInteger tokenId) {
+        int lastIndex = allTokens.size() - 1;
+        int tokenIndex = allTokensIndex.get(tokenId);
+        if (tokenIndex != lastIndex) {
+            BigInteger lastTokenId = allTokens.get(lastIndex);
+            allTokens.set(tokenIndex, lastTokenId);
+            allTokensIndex.put(lastTokenId, tokenIndex);
+        }
+        allTokens.remove(lastIndex);
+        allTokensIndex.remove(tokenId);
+    }
+}
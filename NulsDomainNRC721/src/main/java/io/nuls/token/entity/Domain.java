@@ -49,4 +49,19 @@ public class Domain {
         contract.callWithReturnValue("domainTransfer", "", args, BigInteger.ZERO);
     }
 
+    public void domainTransferBatch(Address from, Address to, String[] tokenIds) {
+        String[][] args = new String[3][];
+        args[0] = new String[]{from.toString()};
+        args[1] = new String[]{to.toString()};
+        args[2] = tokenIds;
+        contract.callWithReturnValue("domainTransferBatch", "", args, BigInteger.ZERO);
+    }
+
+    public void domainBurn(Address owner, BigInteger tokenId) {
+        String[][] args = new String[2][];
+        args[0] = new String[]{owner.toString()};
+        args[1] = new String[]{tokenId.toString()};
+        contract.callWithReturnValue("domainBurn", "", args, BigInteger.ZERO);
+    }
+
 }
@@ -3,12 +3,15 @@ package io.nuls.contract.pocm;
 import io.nuls.contract.pocm.event.*;
 import io.nuls.contract.pocm.manager.ConsensusManager;
 import io.nuls.contract.pocm.manager.PocmInfo;
+import io.nuls.contract.pocm.manager.StakerIndex;
 import io.nuls.contract.pocm.manager.TotalDepositManager;
+import io.nuls.contract.pocm.model.BatchProgress;
 import io.nuls.contract.pocm.model.ConsensusAgentDepositInfo;
 import io.nuls.contract.pocm.model.CurrentMingInfo;
 import io.nuls.contract.pocm.model.UserInfo;
 import io.nuls.contract.pocm.ownership.Ownable;
 import io.nuls.contract.pocm.util.PocmUtil;
+import io.nuls.contract.pocm.util.RewardAccumulator;
 import io.nuls.contract.sdk.*;
 import io.nuls.contract.sdk.annotation.*;
 import io.nuls.contract.sdk.token.NRC20Wrapper;
@@ -37,6 +40,11 @@ public class NulsDomainStaking extends Ownable implements Contract {
     private Map<String, ConsensusAgentDepositInfo> agentDeposits = new HashMap<String, ConsensusAgentDepositInfo>();
     private boolean initialized = false;
     private Address candyTokenCopy;
+    // 分批处理的类型: 领取奖励、退出、放弃，游标保存在质押者索引中
+    private static final int RECEIVE_BATCH = 0;
+    private static final int QUIT_BATCH = 1;
+    private static final int GIVE_UP_BATCH = 2;
+    private StakerIndex stakerIndex = new StakerIndex(3);// 质押者顺序索引
 
     public NulsDomainStaking() {
         if (Msg.sender().toString().startsWith("NULS")) {
@@ -69,6 +77,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
         pi.isNRC20Candy = true;
         pi.candyTokenWrapper = new NRC20Wrapper(candyToken);
         pi.candyTokenWrapper.transfer(Msg.sender(), BigInteger.TEN.pow(18).multiply(BigInteger.valueOf(10000000)));
+        pi.syncCandyBalance();
         pi.candyToken = candyToken;
         pi.candyAssetChainId = 0;
         pi.candyAssetId = 0;
@@ -130,6 +139,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
     public void addCandySupply(BigInteger _amount) {
         onlyOfficial();
         pi.candySupply = pi.candySupply.add(_amount);
+        pi.syncCandyBalance();
         emit(new PocmCandySupplyEvent(pi.candySupply));
     }
 
@@ -170,13 +180,14 @@ public class NulsDomainStaking extends Ownable implements Contract {
         if (user == null) {
             user = new UserInfo(_amount, availableAmount, BigInteger.ZERO, blockNumber);
             this.userInfo.put(senderAddress, user);
+            stakerIndex.add(senderAddress);
         } else {
             user.addAmount(_amount, availableAmount);
             user.setLastDepositHeight(blockNumber);
         }
         require(user.getAmount().compareTo(pi.maximumStaking) <= 0, "user amount not good[maximum]");
         pi.addLpSupply(availableAmount);
-        user.setRewardDebt(user.getAvailableAmount().multiply(pi.accPerShare).divide(pi._1e12));
+        user.setRewardDebt(RewardAccumulator.accrued(user.getAvailableAmount(), pi.accPerShare));
 
         totalDepositManager.add(availableAmount);
 
@@ -199,7 +210,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
         require(user != null, "user not exist");
         updatePool();
         this.receiveInternal(address, user);
-        user.setRewardDebt(user.getAvailableAmount().multiply(pi.accPerShare).divide(pi._1e12));
+        user.setRewardDebt(RewardAccumulator.accrued(user.getAvailableAmount(), pi.accPerShare));
     }
 
     // Withdraw LP tokens from pool.
@@ -235,7 +246,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
     }
 
     public void updateTotalAllocation() {
-        BigInteger balance = pi.candyTokenWrapper.balanceOf(Msg.address());
+        BigInteger balance = pi.syncCandyBalance();
         if (balance.compareTo(BigInteger.ZERO) > 0) {
             this.isAcceptStaking = true;
         } else {
@@ -334,10 +345,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
         require(isAllocationToken() && isAcceptStaking(), "No enough candy token in the contract");
         String[] agentInfo = consensusManager.addOtherAgent(agentHash);
         String agentAddress = agentInfo[0];
-        Collection<ConsensusAgentDepositInfo> agentDepositInfos = agentDeposits.values();
-        for (ConsensusAgentDepositInfo agentDepositInfo : agentDepositInfos) {
-            require(!agentDepositInfo.getDepositorAddress().equals(agentAddress), "The creator address of the node being added conflicts with the creator address of the added node");
-        }
+        require(!stakerIndex.isAgentDepositor(agentAddress), "The creator address of the node being added conflicts with the creator address of the added node");
         BigInteger agentValue = new BigInteger(agentInfo[3]);
         emit(new PocmAgentEvent(agentHash, agentValue, pi.openAwardConsensusNodeProvider));
         BigInteger availableValue = BigInteger.ZERO;
@@ -348,6 +356,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
             user = new UserInfo(BigInteger.ZERO, availableValue, BigInteger.ZERO, currentHeight);
             user.setAgentAmount(agentValue);
             this.userInfo.put(agentAddress, user);
+            stakerIndex.add(agentAddress);
         } else {
             // 存在抵押记录，领取奖励
             this.receiveInternal(new Address(agentAddress), user);
@@ -357,10 +366,11 @@ public class NulsDomainStaking extends Ownable implements Contract {
         }
         user.setOpenNodeAward(pi.openAwardConsensusNodeProvider);
         pi.addLpSupply(availableValue);
-        user.setRewardDebt(user.getAvailableAmount().multiply(pi.accPerShare).divide(pi._1e12));
+        user.setRewardDebt(RewardAccumulator.accrued(user.getAvailableAmount(), pi.accPerShare));
 
         ConsensusAgentDepositInfo agentDepositInfo = new ConsensusAgentDepositInfo(agentHash, agentAddress, 0);
         agentDeposits.put(agentHash, agentDepositInfo);
+        stakerIndex.addAgentDepositor(agentAddress, agentHash);
     }
 
     /**
@@ -387,22 +397,21 @@ public class NulsDomainStaking extends Ownable implements Contract {
     public void quitAll() {
         onlyOfficial();
         require(consensusManager.getAgents() == null, "Please remove the consensus node first");
-        boolean hasAgents = !agentDeposits.isEmpty();
-        Set<String> skippedSet = new HashSet<String>();
-        if (hasAgents) {
-            Collection<ConsensusAgentDepositInfo> agentDepositInfos = agentDeposits.values();
-            for (ConsensusAgentDepositInfo info : agentDepositInfos) {
-                skippedSet.add(info.getDepositorAddress());
-            }
-        }
-        Set<String> userSet = this.userInfo.keySet();
-        List<String> userList = new ArrayList<String>(userSet);
-        for (String user : userList) {
-            if (hasAgents && skippedSet.contains(user)) {
-                continue;
-            }
-            this.quitByUser(user);
-        }
+        stakerIndex.setCursor(QUIT_BATCH, 0);
+        this.processBatch(QUIT_BATCH, stakerIndex.size());
+    }
+
+    /**
+     * 分批退出所有质押者(共识节点创建者除外)，从上次停止的位置继续
+     *
+     * @param maxUsers 本次最多处理的质押者数量
+     * @return 本轮剩余未处理的质押者数量，0表示本轮已完成
+     */
+    public int quitAllBatch(int maxUsers) {
+        onlyOfficial();
+        require(consensusManager.getAgents() == null, "Please remove the consensus node first");
+        require(maxUsers > 0, "maxUsers not good");
+        return this.processBatch(QUIT_BATCH, maxUsers);
     }
 
     public void quitByAddresses(String[] addresses) {
@@ -412,12 +421,22 @@ public class NulsDomainStaking extends Ownable implements Contract {
         }
     }
 
+    /**
+     * 为所有质押者领取奖励，有进行中的分批领取时不重置游标，从游标处继续完成本轮
+     */
     public void receiveAll() {
-        Set<String> userSet = this.userInfo.keySet();
-        List<String> userList = new ArrayList<String>(userSet);
-        for (String user : userList) {
-            this.receiveAwardsByAddress(new Address(user));
-        }
+        this.processBatch(RECEIVE_BATCH, stakerIndex.size());
+    }
+
+    /**
+     * 分批为所有质押者领取奖励，从上次停止的位置继续
+     *
+     * @param maxUsers 本次最多处理的质押者数量
+     * @return 本轮剩余未处理的质押者数量，0表示本轮已完成
+     */
+    public int receiveAllBatch(int maxUsers) {
+        require(maxUsers > 0, "maxUsers not good");
+        return this.processBatch(RECEIVE_BATCH, maxUsers);
     }
 
     public void receiveByAddresses(String[] addresses) {
@@ -429,22 +448,21 @@ public class NulsDomainStaking extends Ownable implements Contract {
     public void giveUpAll() {
         onlyOfficial();
         require(consensusManager.getAgents() == null, "Please remove the consensus node first");
-        boolean hasAgents = !agentDeposits.isEmpty();
-        Set<String> skippedSet = new HashSet<String>();
-        if (hasAgents) {
-            Collection<ConsensusAgentDepositInfo> agentDepositInfos = agentDeposits.values();
-            for (ConsensusAgentDepositInfo info : agentDepositInfos) {
-                skippedSet.add(info.getDepositorAddress());
-            }
-        }
-        Set<String> userSet = this.userInfo.keySet();
-        List<String> userList = new ArrayList<String>(userSet);
-        for (String user : userList) {
-            if (hasAgents && skippedSet.contains(user)) {
-                continue;
-            }
-            this.giveUpByUser(user);
-        }
+        stakerIndex.setCursor(GIVE_UP_BATCH, 0);
+        this.processBatch(GIVE_UP_BATCH, stakerIndex.size());
+    }
+
+    /**
+     * 分批放弃所有质押者的奖励并退还质押(共识节点创建者除外)，从上次停止的位置继续
+     *
+     * @param maxUsers 本次最多处理的质押者数量
+     * @return 本轮剩余未处理的质押者数量，0表示本轮已完成
+     */
+    public int giveUpAllBatch(int maxUsers) {
+        onlyOfficial();
+        require(consensusManager.getAgents() == null, "Please remove the consensus node first");
+        require(maxUsers > 0, "maxUsers not good");
+        return this.processBatch(GIVE_UP_BATCH, maxUsers);
     }
 
     public void giveUpByAddresses(String[] addresses) {
@@ -470,6 +488,16 @@ public class NulsDomainStaking extends Ownable implements Contract {
         pi.treasury = treasury;
     }
 
+    /**
+     * 分批处理进度
+     */
+    @View
+    @JSONSerializable
+    public BatchProgress batchProgress() {
+        return new BatchProgress(stakerIndex.size(), stakerIndex.getCursor(RECEIVE_BATCH),
+                stakerIndex.getCursor(QUIT_BATCH), stakerIndex.getCursor(GIVE_UP_BATCH));
+    }
+
     @View
     public int totalDepositAddressCount() {
         return this.userInfo.size();
@@ -580,6 +608,25 @@ public class NulsDomainStaking extends Ownable implements Contract {
         return sb.toString();
     }
 
+    /**
+     * 查找共识节点创建者地址对应的节点hash，不是节点创建者则返回null
+     *
+     * @param depositorAddress 节点创建者地址
+     * @return
+     */
+    @View
+    public String agentHashOfDepositor(Address depositorAddress) {
+        return stakerIndex.getAgentHash(depositorAddress.toString());
+    }
+
+    /**
+     * 已添加的共识节点数量
+     */
+    @View
+    public int agentDepositorCount() {
+        return stakerIndex.agentDepositorSize();
+    }
+
     /**
      * 查找用户的抵押信息
      *
@@ -612,6 +659,25 @@ public class NulsDomainStaking extends Ownable implements Contract {
         return pi.candyTokenWrapper.balanceOf(Msg.address()).toString();
     }
 
+    /**
+     * 本地账本记录的糖果余额
+     *
+     * @return
+     */
+    @View
+    public String candyBalanceLedger() {
+        return pi.getCandyBalance().toString();
+    }
+
+    /**
+     * 与链上余额对账，重新读取合约持有的糖果余额
+     *
+     * @return
+     */
+    public String syncCandyBalance() {
+        return pi.syncCandyBalance().toString();
+    }
+
     /**
      * 已分配的Token数量
      *
@@ -628,22 +694,82 @@ public class NulsDomainStaking extends Ownable implements Contract {
         String userAddress = _user.toString();
         UserInfo user = this.userInfo.get(userAddress);
         require(user != null, "user not exist");
+        return this.pendingOf(user, this.projectedAccPerShare()).toString();
+    }
+
+    /**
+     * 批量查询多个地址的待领取奖励，累计收益只计算一次，不存在的地址返回0
+     *
+     * @param addresses 质押者地址，最多100个
+     * @return
+     */
+    @View
+    @JSONSerializable
+    public String[] pendingTokens(String[] addresses) {
+        require(addresses.length <= 100, "Max 100 addresses");
+        BigInteger accPerShare = this.projectedAccPerShare();
+        String[] result = new String[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            UserInfo user = this.userInfo.get(addresses[i]);
+            result[i] = user == null ? "0" : this.pendingOf(user, accPerShare).toString();
+        }
+        return result;
+    }
+
+    /**
+     * 分页查询质押者的待领取奖励
+     *
+     * @param offset 起始位置
+     * @param limit  数量，最多100个
+     * @return [[地址, 待领取奖励], ...]
+     */
+    @View
+    @JSONSerializable
+    public String[][] pendingTokensPage(int offset, int limit) {
+        require(offset >= 0 && limit > 0 && limit <= 100, "offset or limit not good");
+        int size = stakerIndex.size();
+        int end = offset + limit < size ? offset + limit : size;
+        if (offset >= end) {
+            return new String[0][];
+        }
+        BigInteger accPerShare = this.projectedAccPerShare();
+        String[][] result = new String[end - offset][];
+        for (int i = offset; i < end; i++) {
+            String userAddress = stakerIndex.get(i);
+            UserInfo user = this.userInfo.get(userAddress);
+            result[i - offset] = new String[]{userAddress, this.pendingOf(user, accPerShare).toString()};
+        }
+        return result;
+    }
+
+    /**
+     * 按当前高度推算的累计每份收益(乘以1e12)，不修改状态
+     */
+    private BigInteger projectedAccPerShare() {
         long blockNumber = Block.number();
         blockNumber = blockNumber < pi.endBlock ? blockNumber : pi.endBlock;
         if (blockNumber > pi.lastRewardBlock && pi.getLpSupply().compareTo(BigInteger.ZERO) > 0) {
             BigInteger reward = BigInteger.valueOf(blockNumber - pi.lastRewardBlock).multiply(pi.candyPerBlock);
-            pi.accPerShare = pi.accPerShare.add(reward.multiply(pi._1e12).divide(pi.getLpSupply()));   // 此处乘以1e12，在下面会除以1e12
+            return RewardAccumulator.accumulate(pi.accPerShare, reward, pi.getLpSupply());
         }
-        BigInteger pendingReward = user.getAvailableAmount().multiply(pi.accPerShare).divide(pi._1e12).subtract(user.getRewardDebt());
+        return pi.accPerShare;
+    }
+
+    private BigInteger pendingOf(UserInfo user, BigInteger accPerShare) {
+        BigInteger pendingReward = RewardAccumulator.pending(user.getAvailableAmount(), accPerShare, user.getRewardDebt());
         if (pi.operatingModel == LP_MODE) {
             BigInteger lpMode = pendingReward.multiply(BigInteger.valueOf(pi.rewardDrawRatioForLp)).divide(TEN_THOUSAND);
-            return pendingReward.subtract(lpMode).toString();
+            return pendingReward.subtract(lpMode);
         }
-        return pendingReward.toString();
+        return pendingReward;
     }
 
     private BigInteger checkCandyBalance() {
-        BigInteger candyBalance = pi.candyTokenWrapper.balanceOf(Msg.address());
+        BigInteger candyBalance = pi.getCandyBalance();
+        if (candyBalance.compareTo(BigInteger.ZERO) <= 0) {
+            // 本地账本为0时与链上余额对账，可能有新转入的糖果
+            candyBalance = pi.syncCandyBalance();
+        }
         require(candyBalance.compareTo(BigInteger.ZERO) > 0, "No enough candy token in the contract");
         return candyBalance;
     }
@@ -651,9 +777,12 @@ public class NulsDomainStaking extends Ownable implements Contract {
     private void receiveInternal(Address sender, UserInfo user) {
         BigInteger candyBalance = checkCandyBalance();
         if (user.getAvailableAmount().compareTo(BigInteger.ZERO) > 0) {
-            BigInteger pending = user.getAvailableAmount().multiply(pi.accPerShare).divide(pi._1e12).subtract(user.getRewardDebt());
+            BigInteger pending = RewardAccumulator.pending(user.getAvailableAmount(), pi.accPerShare, user.getRewardDebt());
             if (pending.compareTo(BigInteger.ZERO) > 0) {
                 // 发放的奖励 <= 糖果余额
+                if (candyBalance.compareTo(pending) <= 0) {
+                    candyBalance = pi.syncCandyBalance();
+                }
                 BigInteger amount;
                 if (candyBalance.compareTo(pending) > 0) {
                     amount = pending;
@@ -671,6 +800,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
                     BigInteger lpMode = amount.multiply(BigInteger.valueOf(pi.rewardDrawRatioForLp)).divide(TEN_THOUSAND);
                     BigInteger userAmount = amount.subtract(lpMode);
                     pi.candyTokenWrapper.transferLocked(sender, userAmount, lockedTime);
+                    pi.debitCandyBalance(userAmount);
                     if (pi.isNRC20Candy) {
                         pi.candyTokenWrapper.approve(this.viewLp(), lpMode);
                         this.viewLp().call("amountEnter", null, new String[][]{new String[]{lpMode.toString()}, new String[]{pi.candyToken.toString()}}, BigInteger.ZERO);
@@ -678,10 +808,12 @@ public class NulsDomainStaking extends Ownable implements Contract {
                         this.viewLp().callWithReturnValue("amountEnter", null, new String[][]{new String[]{"0"}, new String[]{}}, BigInteger.ZERO,
                                 new MultyAssetValue[]{new MultyAssetValue(lpMode, pi.candyAssetChainId, pi.candyAssetId)});
                     }
+                    pi.debitCandyBalance(lpMode);
                     list.add(new CurrentMingInfo(0, userAmount, sender.toString(), 0));
                     list.add(new CurrentMingInfo(0, lpMode, this.viewLp().toString(), 0));
                 } else if (pi.operatingModel == NORMAL_MODE) {
                     pi.candyTokenWrapper.transferLocked(sender, amount, lockedTime);
+                    pi.debitCandyBalance(amount);
                     list.add(new CurrentMingInfo(0, amount, sender.toString(), 0));
                 }
                 this.allocationAmount = this.allocationAmount.add(amount);
@@ -704,12 +836,13 @@ public class NulsDomainStaking extends Ownable implements Contract {
         require(isEnoughBalance, "The balance is not enough to refund the staking, please contact the project party, the staking: " + available);
         user.subAmount(_amount, available);
         pi.subLpSupply(available);
-        user.setRewardDebt(user.getAvailableAmount().multiply(pi.accPerShare).divide(pi._1e12));
+        user.setRewardDebt(RewardAccumulator.accrued(user.getAvailableAmount(), pi.accPerShare));
         if (_amount.compareTo(BigInteger.ZERO) > 0) {
             sender.transfer(_amount);
         }
         if (user.getAvailableAmount().compareTo(BigInteger.ZERO) == 0 && user.getAgentAmount().compareTo(BigInteger.ZERO) == 0) {
             this.userInfo.remove(senderAddress);
+            stakerIndex.remove(senderAddress);
         }
         // 提现事件
         emit(new PocmWithdrawEvent(senderAddress, _amount.toString()));
@@ -732,9 +865,10 @@ public class NulsDomainStaking extends Ownable implements Contract {
         }
         if (user.getAvailableAmount().compareTo(BigInteger.ZERO) == 0) {
             this.userInfo.remove(senderAddress);
+            stakerIndex.remove(senderAddress);
         } else {
             updatePool();
-            user.setRewardDebt(user.getAvailableAmount().multiply(pi.accPerShare).divide(pi._1e12));
+            user.setRewardDebt(RewardAccumulator.accrued(user.getAvailableAmount(), pi.accPerShare));
         }
         pi.subLpSupply(available);
     }
@@ -745,7 +879,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
 
     private boolean isAllocationToken() {
         if (!isAllocationToken) {
-            BigInteger balance = pi.candyTokenWrapper.balanceOf(Msg.address());
+            BigInteger balance = pi.syncCandyBalance();
             if (balance.compareTo(BigInteger.ZERO) > 0) {
                 isAllocationToken = true;
                 isAcceptStaking = true;
@@ -770,6 +904,37 @@ public class NulsDomainStaking extends Ownable implements Contract {
         this.withdrawByUser(new Address(userAddress), userInfo, userInfo.getAmount());
     }
 
+    /**
+     * 从游标位置开始最多处理maxUsers个质押者，返回本轮剩余数量，本轮完成后游标归零
+     */
+    private int processBatch(int type, int maxUsers) {
+        int processed = 0;
+        while (processed < maxUsers && stakerIndex.getCursor(type) < stakerIndex.size()) {
+            int cursor = stakerIndex.getCursor(type);
+            String user = stakerIndex.get(cursor);
+            processed++;
+            if (type == RECEIVE_BATCH) {
+                this.receiveAwardsByAddress(new Address(user));
+            } else if (!stakerIndex.isAgentDepositor(user)) {
+                if (type == QUIT_BATCH) {
+                    this.quitByUser(user);
+                } else {
+                    this.giveUpByUser(user);
+                }
+            }
+            // 质押者被移除时未处理的地址会移到当前位置，此时游标不前进
+            if (cursor < stakerIndex.size() && user.equals(stakerIndex.get(cursor))) {
+                stakerIndex.setCursor(type, cursor + 1);
+            }
+        }
+        int remaining = stakerIndex.size() - stakerIndex.getCursor(type);
+        if (remaining <= 0) {
+            stakerIndex.setCursor(type, 0);
+            return 0;
+        }
+        return remaining;
+    }
+
     private void updatePool() {
         long blockNumber = Block.number();
         if (blockNumber <= pi.lastRewardBlock) {
@@ -781,7 +946,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
         }
         blockNumber = blockNumber < pi.endBlock ? blockNumber : pi.endBlock;
         BigInteger reward = BigInteger.valueOf(blockNumber - pi.lastRewardBlock).multiply(pi.candyPerBlock);
-        pi.accPerShare = pi.accPerShare.add(reward.multiply(pi._1e12).divide(pi.getLpSupply()));
+        pi.accPerShare = RewardAccumulator.accumulate(pi.accPerShare, reward, pi.getLpSupply());
         pi.lastRewardBlock = blockNumber;
     }
 
@@ -789,7 +954,7 @@ public class NulsDomainStaking extends Ownable implements Contract {
         require(!pi.openConsensus, "Consensus has been turned on");
         pi.openConsensus = true;
         if (this.consensusManager == null) {
-            this.consensusManager = new ConsensusManager(this.userInfo, this.agentDeposits, this, this.pi);
+            this.consensusManager = new ConsensusManager(this.userInfo, this.agentDeposits, this.stakerIndex, this, this.pi);
         }
         this.totalDepositManager.openConsensus(this.consensusManager);
     }
@@ -30,6 +30,7 @@ import io.nuls.contract.pocm.model.ConsensusAgentDepositInfo;
 import io.nuls.contract.pocm.model.ConsensusAwardInfo;
 import io.nuls.contract.pocm.model.UserInfo;
 import io.nuls.contract.pocm.util.PocmUtil;
+import io.nuls.contract.pocm.util.RewardAccumulator;
 import io.nuls.contract.sdk.Address;
 import io.nuls.contract.sdk.Msg;
 
@@ -65,17 +66,20 @@ public class ConsensusManager {
 
     private Map<String, UserInfo> userInfo;
     private Map<String, ConsensusAgentDepositInfo> agentDeposits;
+    private StakerIndex stakerIndex;
     private NulsDomainStaking pocmContract;
     private PocmInfo pi;
     private BigInteger pendingTreasury = BigInteger.ZERO;
 
     public ConsensusManager(Map<String, UserInfo> userInfo,
                             Map<String, ConsensusAgentDepositInfo> agentDeposits,
+                            StakerIndex stakerIndex,
                             NulsDomainStaking pocmContract, PocmInfo pi) {
         awardInfo = new ConsensusAwardInfo(Msg.address().toString());
         enableDepositOthers();
         this.userInfo = userInfo;
         this.agentDeposits = agentDeposits;
+        this.stakerIndex = stakerIndex;
         this.pocmContract = pocmContract;
         this.pi = pi;
     }
@@ -162,9 +166,12 @@ public class ConsensusManager {
             value = value.subtract(availableAmount);
             availableAmount = BigInteger.ZERO;
         }
+        // 退出委托和重新委托共用同一份节点信息缓存
+        boolean cacheOwner = depositOthersManager.beginAgentCache();
         // 退出委托其他节点的金额
         depositOthersManager.withdrawInner(value, this);
         if (availableAmount.compareTo(value) < 0) {
+            depositOthersManager.endAgentCache(cacheOwner);
             return false;
         }
         availableAmount = availableAmount.subtract(value);
@@ -174,6 +181,7 @@ public class ConsensusManager {
         if(availableAmount.compareTo(MIN_JOIN_DEPOSIT) >= 0) {
             depositOthersManager.deposit(availableAmount, this);
         }
+        depositOthersManager.endAgentCache(cacheOwner);
         return true;
     }
 
@@ -294,14 +302,16 @@ public class ConsensusManager {
                 pi.subLpSupply(agentAmount);
             }
             if (user.getAvailableAmount().compareTo(BigInteger.ZERO) > 0) {
-                user.setRewardDebt(user.getAvailableAmount().multiply(pi.accPerShare).divide(pi._1e12));
+                user.setRewardDebt(RewardAccumulator.accrued(user.getAvailableAmount(), pi.accPerShare));
                 user.setAgentAmount(BigInteger.ZERO);
                 user.setOpenNodeAward(false);
             } else {
                 userInfo.remove(userAddress);
+                stakerIndex.remove(userAddress);
             }
         }
         agentDeposits.remove(agentHash);
+        stakerIndex.removeAgentDepositor(userAddress);
     }
 
     public void removeAgentInner(String agentHash) {
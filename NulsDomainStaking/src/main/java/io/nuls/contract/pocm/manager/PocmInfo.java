@@ -39,7 +39,6 @@ public class PocmInfo {
     //1天=24*60*60秒
     public final long TIMEPERDAY = 86400;
     public BigInteger _2000_NULS = BigInteger.valueOf(200000000000L);
-    public final BigInteger _1e12 = BigInteger.TEN.pow(12);
     public Token candyTokenWrapper;
     public Address candyToken; // Address of candy token contract.
     public int candyAssetChainId;// chainId of candy token contract.
@@ -49,6 +48,7 @@ public class PocmInfo {
     public BigInteger accPerShare;    // Accumulated token per share, times 1e12. See below.
     public BigInteger candyPerBlock;
     private BigInteger lpSupply = BigInteger.ZERO; // 抵押总量
+    private BigInteger candyBalance = BigInteger.ZERO; // 合约持有的糖果余额(本地账本，转出时扣减，通过syncCandyBalance与链上余额对账)
     public BigInteger candySupply;// 糖果发行总量
     public int lockedTokenDay;// 获取Token奖励的锁定天数
     public long lockedTime;
@@ -65,8 +65,8 @@ public class PocmInfo {
 
     public void addLpSupply(BigInteger lpSupply) {
         if (this.lpSupply.compareTo(BigInteger.ZERO) == 0 && lpSupply.compareTo(BigInteger.ZERO) > 0) {
-            BigInteger candyBalance = candyTokenWrapper.balanceOf(Msg.address());
-            BigInteger blockCount = candyBalance.divide(candyPerBlock);
+            // 糖果可能被直接转入合约，重新计算结束高度前与链上余额对账
+            BigInteger blockCount = this.syncCandyBalance().divide(candyPerBlock);
             this.endBlock = Block.number() + blockCount.longValue();
         }
         this.lpSupply = this.lpSupply.add(lpSupply);
@@ -75,8 +75,7 @@ public class PocmInfo {
     public void subLpSupply(BigInteger lpSupply) {
         this.lpSupply = this.lpSupply.subtract(lpSupply);
         if (this.lpSupply.compareTo(BigInteger.ZERO) == 0) {
-            BigInteger candyBalance = candyTokenWrapper.balanceOf(Msg.address());
-            if (candyBalance.compareTo(BigInteger.ZERO) == 0) {
+            if (this.syncCandyBalance().compareTo(BigInteger.ZERO) == 0) {
                 this.endBlock = Block.number();
             } else {
                 // time: 127174492800 is 6000-01-01, blockCount = time/10 = 12717449280
@@ -88,4 +87,26 @@ public class PocmInfo {
     public BigInteger getLpSupply() {
         return this.lpSupply;
     }
+
+    /**
+     * 重新读取链上糖果余额，覆盖本地账本
+     */
+    public BigInteger syncCandyBalance() {
+        this.candyBalance = candyTokenWrapper.balanceOf(Msg.address());
+        return this.candyBalance;
+    }
+
+    /**
+     * 糖果转出后扣减本地账本
+     */
+    public void debitCandyBalance(BigInteger amount) {
+        this.candyBalance = this.candyBalance.subtract(amount);
+        if (this.candyBalance.compareTo(BigInteger.ZERO) < 0) {
+            this.candyBalance = BigInteger.ZERO;
+        }
+    }
+
+    public BigInteger getCandyBalance() {
+        return this.candyBalance;
+    }
 }
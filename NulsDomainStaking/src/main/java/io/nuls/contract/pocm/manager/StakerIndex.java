@@ -0,0 +1,133 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 质押者地址的顺序索引，支持按位置分批遍历，删除时用末位地址填补空位
+ * 每种分批操作有一个游标，[0, cursor)为本轮已处理的位置，删除地址时保证游标之后只有本轮未处理的地址
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class StakerIndex {
+    private final List<String> stakers = new ArrayList<String>();
+    private final Map<String, Integer> positions = new HashMap<String, Integer>();
+    // 共识节点创建者地址 -> 节点hash，批量退出时跳过这些地址
+    private final Map<String, String> agentDepositors = new HashMap<String, String>();
+    private final int[] cursors;
+
+    public StakerIndex(int cursorCount) {
+        this.cursors = new int[cursorCount];
+    }
+
+    public void add(String address) {
+        if (positions.containsKey(address)) {
+            return;
+        }
+        positions.put(address, stakers.size());
+        stakers.add(address);
+    }
+
+    public void remove(String address) {
+        Integer position = positions.remove(address);
+        if (position == null) {
+            return;
+        }
+        int hole = position;
+        // 空位位于某个游标之前时，用该游标前一位(已处理)的地址填补，空位移到游标前一位，游标前移一位
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i] > hole && (next < 0 || cursors[i] < cursors[next])) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            int target = cursors[next] - 1;
+            this.move(target, hole);
+            hole = target;
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i] == target + 1) {
+                    cursors[i] = target;
+                }
+            }
+        }
+        // 空位已不在任何游标之前，用末位(未处理)的地址填补
+        int lastIndex = stakers.size() - 1;
+        this.move(lastIndex, hole);
+        stakers.remove(lastIndex);
+    }
+
+    private void move(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        String address = stakers.get(from);
+        stakers.set(to, address);
+        positions.put(address, to);
+    }
+
+    public int getCursor(int type) {
+        return cursors[type];
+    }
+
+    public void setCursor(int type, int cursor) {
+        cursors[type] = cursor;
+    }
+
+    public String get(int index) {
+        return stakers.get(index);
+    }
+
+    public int size() {
+        return stakers.size();
+    }
+
+    public void addAgentDepositor(String address, String agentHash) {
+        agentDepositors.put(address, agentHash);
+    }
+
+    public void removeAgentDepositor(String address) {
+        agentDepositors.remove(address);
+    }
+
+    public boolean isAgentDepositor(String address) {
+        return agentDepositors.containsKey(address);
+    }
+
+    public String getAgentHash(String depositorAddress) {
+        return agentDepositors.get(depositorAddress);
+    }
+
+    public int agentDepositorSize() {
+        return agentDepositors.size();
+    }
+}
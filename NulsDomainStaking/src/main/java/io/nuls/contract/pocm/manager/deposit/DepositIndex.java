@@ -0,0 +1,200 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm.manager.deposit;
+
+import io.nuls.contract.pocm.model.ConsensusDepositInfo;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 委托记录索引，按金额升序排列(金额相同则按加入顺序)，并按委托交易hash、节点hash建立二级索引
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DepositIndex {
+    // 按金额升序
+    private final List<ConsensusDepositInfo> sortedDeposits = new ArrayList<ConsensusDepositInfo>();
+    // 委托交易hash -> 委托记录
+    private final Map<String, ConsensusDepositInfo> depositsByHash = new HashMap<String, ConsensusDepositInfo>();
+    // 节点hash -> 该节点的委托记录
+    private final Map<String, List<ConsensusDepositInfo>> depositsByAgent = new HashMap<String, List<ConsensusDepositInfo>>();
+
+    public void add(ConsensusDepositInfo info) {
+        // 金额相同时插在已有记录之后
+        sortedDeposits.add(this.upperBound(info.getDeposit()), info);
+        depositsByHash.put(info.getHash(), info);
+        List<ConsensusDepositInfo> agentDeposits = depositsByAgent.get(info.getAgentHash());
+        if (agentDeposits == null) {
+            agentDeposits = new ArrayList<ConsensusDepositInfo>();
+            depositsByAgent.put(info.getAgentHash(), agentDeposits);
+        }
+        agentDeposits.add(info);
+    }
+
+    public boolean remove(ConsensusDepositInfo info) {
+        if (depositsByHash.remove(info.getHash()) == null) {
+            return false;
+        }
+        int size = sortedDeposits.size();
+        for (int i = this.lowerBound(info.getDeposit()); i < size; i++) {
+            if (sortedDeposits.get(i) == info) {
+                sortedDeposits.remove(i);
+                break;
+            }
+        }
+        List<ConsensusDepositInfo> agentDeposits = depositsByAgent.get(info.getAgentHash());
+        if (agentDeposits != null) {
+            agentDeposits.remove(info);
+            if (agentDeposits.isEmpty()) {
+                depositsByAgent.remove(info.getAgentHash());
+            }
+        }
+        return true;
+    }
+
+    public boolean contains(String hash) {
+        return depositsByHash.containsKey(hash);
+    }
+
+    public ConsensusDepositInfo getByHash(String hash) {
+        return depositsByHash.get(hash);
+    }
+
+    /**
+     * 节点的委托记录副本，调用方可在遍历时修改索引
+     */
+    public List<ConsensusDepositInfo> getByAgent(String agentHash) {
+        List<ConsensusDepositInfo> agentDeposits = depositsByAgent.get(agentHash);
+        if (agentDeposits == null) {
+            return new ArrayList<ConsensusDepositInfo>();
+        }
+        return new ArrayList<ConsensusDepositInfo>(agentDeposits);
+    }
+
+    /**
+     * 退出委托计划：选出覆盖amount的最少笔数委托，在笔数最少的前提下逐笔贪心减小超出amount的金额
+     * 每一笔都取"剩余笔数仍能覆盖剩余金额"的最小委托，因此只需一笔时超出金额最小，
+     * 多笔时不保证超出金额是所有最少笔数组合中的最小值(精确求解是子集和问题，gas不可控)
+     * 所有委托合计不足amount时，返回全部委托
+     */
+    public List<ConsensusDepositInfo> planCovering(BigInteger amount) {
+        List<ConsensusDepositInfo> candidates = this.snapshot();
+        List<ConsensusDepositInfo> plan = new ArrayList<ConsensusDepositInfo>();
+        // 从大到小累加，得到最少笔数
+        int count = 0;
+        BigInteger covered = BigInteger.ZERO;
+        for (int i = candidates.size() - 1; i >= 0 && covered.compareTo(amount) < 0; i--) {
+            covered = covered.add(candidates.get(i).getDeposit());
+            count++;
+        }
+        if (covered.compareTo(amount) < 0) {
+            return candidates;
+        }
+        BigInteger remaining = amount;
+        for (int picks = count; picks > 0; picks--) {
+            int size = candidates.size();
+            // 剩余picks-1笔取最大的委托
+            BigInteger topSum = BigInteger.ZERO;
+            for (int i = size - picks + 1; i < size; i++) {
+                topSum = topSum.add(candidates.get(i).getDeposit());
+            }
+            // 本笔取满足 本笔 + 最大的picks-1笔 >= remaining 的最小委托
+            int index = this.lowerBound(candidates, remaining.subtract(topSum));
+            if (index > size - picks) {
+                index = size - picks;
+            }
+            ConsensusDepositInfo info = candidates.remove(index);
+            plan.add(info);
+            remaining = remaining.subtract(info.getDeposit());
+            if (remaining.compareTo(BigInteger.ZERO) <= 0) {
+                break;
+            }
+        }
+        return plan;
+    }
+
+    public ConsensusDepositInfo get(int index) {
+        return sortedDeposits.get(index);
+    }
+
+    /**
+     * 全部委托记录副本(金额升序)，调用方可在遍历时修改索引
+     */
+    public List<ConsensusDepositInfo> snapshot() {
+        return new ArrayList<ConsensusDepositInfo>(sortedDeposits);
+    }
+
+    public int size() {
+        return sortedDeposits.size();
+    }
+
+    public boolean isEmpty() {
+        return sortedDeposits.isEmpty();
+    }
+
+    public void clear() {
+        sortedDeposits.clear();
+        depositsByHash.clear();
+        depositsByAgent.clear();
+    }
+
+    // 第一个金额不小于amount的位置
+    private int lowerBound(BigInteger amount) {
+        return this.lowerBound(sortedDeposits, amount);
+    }
+
+    private int lowerBound(List<ConsensusDepositInfo> deposits, BigInteger amount) {
+        int low = 0;
+        int high = deposits.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (deposits.get(mid).getDeposit().compareTo(amount) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // 第一个金额大于amount的位置
+    private int upperBound(BigInteger amount) {
+        int low = 0;
+        int high = sortedDeposits.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedDeposits.get(mid).getDeposit().compareTo(amount) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
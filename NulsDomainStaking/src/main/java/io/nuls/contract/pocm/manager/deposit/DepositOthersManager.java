@@ -45,13 +45,16 @@ public class DepositOthersManager {
      */
     private Map<String, AgentInfo> otherAgents;
 
-    // 委托信息列表
-    private LinkedList<ConsensusDepositInfo> depositList = new LinkedList<ConsensusDepositInfo>();
+    // 委托信息索引(按金额升序)
+    private DepositIndex depositIndex = new DepositIndex();
     // 委托其他节点的锁定金额
     private BigInteger depositLockedAmount = BigInteger.ZERO;
 
     private BigInteger MIN_JOIN_DEPOSIT;
 
+    // 当前交易内的节点信息缓存，避免重复调用cs_getContractAgentInfo，交易结束前置空
+    private Map<String, String[]> agentInfoCache;
+
     public DepositOthersManager() {
         otherAgents = new HashMap<String, AgentInfo>();
     }
@@ -79,50 +82,81 @@ public class DepositOthersManager {
     public String[] addOtherAgent(String agentHash) {
         require(!otherAgents.containsKey(agentHash), "Duplicate node hash");
         otherAgents.put(agentHash, new AgentInfo());
-        Object agentInfo = Utils.invokeExternalCmd("cs_getContractAgentInfo", new String[]{agentHash});
-        require(agentInfo != null, "Invalid node hash");
-        String[] agent = (String[]) agentInfo;
+        String[] agent = this.getAgentInfo(agentHash);
+        require(agent != null, "Invalid node hash");
         // 注销高度，-1代表正常
         require("-1".equals(agent[8]), "Invalid node");
         return agent;
     }
 
-    private boolean isEnableAgentNode(String agentHash) {
+    /**
+     * 开启交易内的节点信息缓存，返回true表示由调用方负责结束缓存
+     */
+    public boolean beginAgentCache() {
+        if (agentInfoCache != null) {
+            return false;
+        }
+        agentInfoCache = new HashMap<String, String[]>();
+        return true;
+    }
+
+    public void endAgentCache(boolean owner) {
+        if (owner) {
+            agentInfoCache = null;
+        }
+    }
+
+    private String[] getAgentInfo(String agentHash) {
+        if (agentInfoCache != null && agentInfoCache.containsKey(agentHash)) {
+            return agentInfoCache.get(agentHash);
+        }
         Object agentInfo = Utils.invokeExternalCmd("cs_getContractAgentInfo", new String[]{agentHash});
-        boolean isEnabled;
-        if (agentInfo == null ){
-            isEnabled = false;
-        } else {
-            String[] agent = (String[])agentInfo;
-            // 注销高度，-1代表正常
-            isEnabled = "-1".equals(agent[8]);
+        String[] agent = agentInfo == null ? null : (String[]) agentInfo;
+        if (agentInfoCache != null) {
+            agentInfoCache.put(agentHash, agent);
+        }
+        return agent;
+    }
+
+    // 委托或退出委托后同步缓存中的节点总委托金额
+    private void updateCachedAgentDeposit(String agentHash, BigInteger change) {
+        if (agentInfoCache == null) {
+            return;
         }
-        return isEnabled;
+        String[] agent = agentInfoCache.get(agentHash);
+        if (agent != null) {
+            agent[4] = new BigInteger(agent[4]).add(change).toString();
+        }
+    }
+
+    private boolean isEnableAgentNode(String agentHash) {
+        String[] agent = this.getAgentInfo(agentHash);
+        // 注销高度，-1代表正常
+        return agent != null && "-1".equals(agent[8]);
     }
 
     public void removeAgent(String agentHash, ConsensusManager consensusManager) {
+        boolean cacheOwner = this.beginAgentCache();
         BigInteger withdrawAmount = BigInteger.ZERO;
         require(otherAgents.containsKey(agentHash), "Node not exist");
         boolean isEnabled = isEnableAgentNode(agentHash);
         //退出节点委托
-        Iterator<ConsensusDepositInfo> iterator = depositList.iterator();
-        while (iterator.hasNext()){
-            ConsensusDepositInfo depositInfo = iterator.next();
-            if(agentHash.equals(depositInfo.getAgentHash())){
-                if(isEnabled){
-                    this.withdrawOne(depositInfo, consensusManager);
-                }else{
-                    depositLockedAmount = depositLockedAmount.subtract(depositInfo.getDeposit());
-                }
-                iterator.remove();
-                withdrawAmount = withdrawAmount.add(depositInfo.getDeposit());
+        List<ConsensusDepositInfo> agentDepositList = depositIndex.getByAgent(agentHash);
+        for (ConsensusDepositInfo depositInfo : agentDepositList) {
+            if(isEnabled){
+                this.withdrawOne(depositInfo, consensusManager);
+            }else{
+                depositLockedAmount = depositLockedAmount.subtract(depositInfo.getDeposit());
             }
+            depositIndex.remove(depositInfo);
+            withdrawAmount = withdrawAmount.add(depositInfo.getDeposit());
         }
         if (!isEnabled) {
             consensusManager.addAvailableAmount(withdrawAmount);
         }
         //清除委托节点
         otherAgents.remove(agentHash);
+        this.endAgentCache(cacheOwner);
     }
 
     public BigInteger deposit(BigInteger availableAmount, ConsensusManager consensusManager) {
@@ -136,37 +170,23 @@ public class DepositOthersManager {
     }
 
     private BigInteger depositCheck(BigInteger availableAmount, ConsensusManager consensusManager) {
+        boolean cacheOwner = this.beginAgentCache();
+        // 用户质押时，若遇到节点注销，则一次性移除所有已注销的节点
+        List<String> disabledAgents = new ArrayList<String>();
+        for (String agentHash : otherAgents.keySet()) {
+            if (!this.isEnableAgentNode(agentHash)) {
+                disabledAgents.add(agentHash);
+            }
+        }
+        for (String agentHash : disabledAgents) {
+            consensusManager.removeAgentInner(agentHash);
+        }
         BigInteger actualDeposit = BigInteger.ZERO;
-        BigInteger[] amounts = new BigInteger[]{availableAmount, actualDeposit};
-        this.depositCheckRecursion(amounts, consensusManager, new HashSet<String>());
-        return amounts[1];
-    }
-
-    // avoid ConcurrentModificationException of 'otherAgents'
-    private void depositCheckRecursion(BigInteger[] amounts, ConsensusManager consensusManager, Set<String> exclude) {
-        BigInteger availableAmount = amounts[0];
-        BigInteger actualDeposit = amounts[1];
-        String[] agentInfo;
-        boolean isEnabled;
         Set<Map.Entry<String, AgentInfo>> entries = otherAgents.entrySet();
         for(Map.Entry<String, AgentInfo> entry : entries) {
             String agentHash = entry.getKey();
-            if (exclude.contains(agentHash)) continue;
             AgentInfo agent = entry.getValue();
-            agentInfo = (String[]) Utils.invokeExternalCmd("cs_getContractAgentInfo", new String[]{agentHash});
-            // 用户质押时，若遇到节点注销，则移除节点
-            if (agentInfo == null ){
-                isEnabled = false;
-            } else {
-                // 注销高度，-1代表正常
-                isEnabled = "-1".equals(agentInfo[8]);
-            }
-            if (!isEnabled) {
-                consensusManager.removeAgentInner(agentHash);
-                this.depositCheckRecursion(amounts, consensusManager, exclude);
-                break;
-            }
-            exclude.add(agentHash);
+            String[] agentInfo = this.getAgentInfo(agentHash);
             // 合约节点已委托金额
             BigInteger totalDeposit = this.moreDeposits(agent, new BigInteger(agentInfo[4]));
             BigInteger currentAvailable = MAX_TOTAL_DEPOSIT.subtract(totalDeposit);
@@ -182,8 +202,8 @@ public class DepositOthersManager {
                 availableAmount = availableAmount.subtract(currentAvailable);
             }
         }
-        amounts[0] = availableAmount;
-        amounts[1] = actualDeposit;
+        this.endAgentCache(cacheOwner);
+        return actualDeposit;
     }
 
     private BigInteger moreDeposits(AgentInfo agent, BigInteger totalDepositFromCmd) {
@@ -203,62 +223,49 @@ public class DepositOthersManager {
      * @return actualWithdrawAmount 实际退出的金额(始终大于或等于期望值)
      */
     public void withdrawInner(BigInteger expectWithdrawAmount, ConsensusManager consensusManager) {
+        boolean cacheOwner = this.beginAgentCache();
         // 退出所有委托
         if(expectWithdrawAmount.compareTo(depositLockedAmount) >= 0) {
             // 从共识中退出所有金额，则无需返回实际退出金额，内部已返回退出金额
-            this.withdrawWhole(consensusManager, new HashSet<String>());
+            this.withdrawWhole(consensusManager);
             depositLockedAmount = BigInteger.ZERO;
-            depositList.clear();
+            depositIndex.clear();
         } else {
-            BigInteger withdrawAmount;
-            while (expectWithdrawAmount.compareTo(BigInteger.ZERO) > 0){
-                withdrawAmount = this.withdrawLoop(expectWithdrawAmount, consensusManager);
-                if (withdrawAmount.compareTo(BigInteger.ZERO) == 0) break;
-                if(withdrawAmount.compareTo(expectWithdrawAmount) >= 0){
-                    expectWithdrawAmount = BigInteger.ZERO;
-                }else{
-                    expectWithdrawAmount = expectWithdrawAmount.subtract(withdrawAmount);
-                }
+            while (expectWithdrawAmount.compareTo(BigInteger.ZERO) > 0 && !depositIndex.isEmpty()){
+                expectWithdrawAmount = this.withdrawByPlan(expectWithdrawAmount, consensusManager);
             }
         }
+        this.endAgentCache(cacheOwner);
     }
 
     public BigInteger consensusEmergencyWithdraw(String joinAgentHash, ConsensusManager consensusManager) {
         BigInteger withdrawAmount = BigInteger.ZERO;
         //退出节点委托
-        Iterator<ConsensusDepositInfo> iterator = depositList.iterator();
-        while (iterator.hasNext()){
-            ConsensusDepositInfo depositInfo = iterator.next();
-            if(joinAgentHash.equals(depositInfo.getHash())){
-                this.withdrawOne(depositInfo, consensusManager);
-                iterator.remove();
-                withdrawAmount = withdrawAmount.add(depositInfo.getDeposit());
-                break;
-            }
+        ConsensusDepositInfo depositInfo = depositIndex.getByHash(joinAgentHash);
+        if (depositInfo != null) {
+            this.withdrawOne(depositInfo, consensusManager);
+            depositIndex.remove(depositInfo);
+            withdrawAmount = withdrawAmount.add(depositInfo.getDeposit());
         }
         return withdrawAmount;
     }
 
-    // avoid ConcurrentModificationException of 'depositList'
-    private void withdrawWhole(ConsensusManager consensusManager, Set<String> exclude) {
-        for(ConsensusDepositInfo info : depositList) {
-            if (exclude.contains(info.getHash())) continue;
-            boolean agentRemoved = (this.withdrawOneWithCheck(info, consensusManager).compareTo(BigInteger.ZERO) < 0);
-            if (agentRemoved) {
-                withdrawWhole(consensusManager, exclude);
-                break;
-            } else {
-                exclude.add(info.getHash());
-            }
+    // 遍历副本，节点注销时其委托记录会在removeAgent中从索引移除，跳过即可
+    private void withdrawWhole(ConsensusManager consensusManager) {
+        List<ConsensusDepositInfo> deposits = depositIndex.snapshot();
+        for(ConsensusDepositInfo info : deposits) {
+            if (!depositIndex.contains(info.getHash())) continue;
+            this.withdrawOneWithCheck(info, consensusManager);
         }
     }
 
     private String depositOne(String agentHash, BigInteger depositNa, AgentInfo agent, ConsensusManager consensusManager) {
         String[] args = new String[]{agentHash, depositNa.toString()};
         String txHash = (String) Utils.invokeExternalCmd("cs_contractDeposit", args);
-        this.orderlyAdditionToDepositList(new ConsensusDepositInfo(agentHash, txHash, depositNa));
+        depositIndex.add(new ConsensusDepositInfo(agentHash, txHash, depositNa));
         depositLockedAmount = depositLockedAmount.add(depositNa);
         agent.add(depositNa);
+        this.updateCachedAgentDeposit(agentHash, depositNa);
         consensusManager.subAvailableAmount(depositNa);
         return txHash;
     }
@@ -285,71 +292,30 @@ public class DepositOthersManager {
         depositLockedAmount = depositLockedAmount.subtract(deposit);
         AgentInfo agent = otherAgents.get(agentHash);
         agent.subtract(deposit);
+        this.updateCachedAgentDeposit(agentHash, deposit.negate());
         consensusManager.addAvailableAmount(deposit);
         return txHash;
     }
 
-    private BigInteger withdrawLoop(BigInteger expectWithdrawAmount, ConsensusManager consensusManager){
-        if (depositList.size() == 0) {
-            return BigInteger.ZERO;
-        }
-        ConsensusDepositInfo maxDeposit = depositList.getLast();
-        BigInteger realWithdrawAmount = BigInteger.ZERO;
-        //当退出金额大于最大的委托则退出最大委托；否则从小到大遍历找到大于退出金额的第一条委托记录
-        if(expectWithdrawAmount.compareTo(maxDeposit.getDeposit()) >= 0){
-            realWithdrawAmount = this.withdrawOneWithCheck(maxDeposit, consensusManager);
-            boolean depositRemoved = (realWithdrawAmount.compareTo(BigInteger.ZERO) < 0);
-            if (!depositRemoved) {
-                depositList.removeLast();
-            }
-        }else{
-            // 找出最小的一笔退出抵押的金额（使闲置金额最小）
-            for(Iterator<ConsensusDepositInfo> iterator = depositList.iterator(); iterator.hasNext();){
-                ConsensusDepositInfo info = iterator.next();
-                if(info.getDeposit().compareTo(expectWithdrawAmount) >= 0) {
-                    realWithdrawAmount = this.withdrawOneWithCheck(info, consensusManager);
-                    boolean depositRemoved = (realWithdrawAmount.compareTo(BigInteger.ZERO) < 0);
-                    // avoid ConcurrentModificationException of 'depositList'
-                    if (!depositRemoved) {
-                        iterator.remove();
-                    }
-                    break;
-                }
-            }
-        }
-        return realWithdrawAmount.abs();
-    }
-
     /**
-     * 按金额升序
+     * 按退出计划逐笔退出委托，遇到节点注销时停止执行，由调用方按剩余金额重新规划
+     *
+     * @return 剩余需要退出的金额
      */
-    private void orderlyAdditionToDepositList(ConsensusDepositInfo info) {
-        BigInteger deposit = info.getDeposit();
-        int size = depositList.size();
-        if (size == 0) {
-            depositList.add(info);
-            return;
-        }
-        BigInteger compare;
-        int result;
-        int last = size - 1;
-        for (int i = 0; i < size; i++) {
-            compare = depositList.get(i).getDeposit();
-            result = compare.compareTo(deposit);
-            if (result < 0) {
-                if (i == last) {
-                    depositList.addLast(info);
-                    break;
-                }
-                continue;
-            } else if (result == 0) {
-                depositList.add(i + 1, info);
-                break;
-            } else {
-                depositList.add(i, info);
+    private BigInteger withdrawByPlan(BigInteger expectWithdrawAmount, ConsensusManager consensusManager){
+        List<ConsensusDepositInfo> plan = depositIndex.planCovering(expectWithdrawAmount);
+        for (ConsensusDepositInfo info : plan) {
+            BigInteger realWithdrawAmount = this.withdrawOneWithCheck(info, consensusManager);
+            boolean agentRemoved = (realWithdrawAmount.compareTo(BigInteger.ZERO) < 0);
+            if (!agentRemoved) {
+                depositIndex.remove(info);
+            }
+            expectWithdrawAmount = expectWithdrawAmount.subtract(realWithdrawAmount.abs());
+            if (agentRemoved || expectWithdrawAmount.compareTo(BigInteger.ZERO) <= 0) {
                 break;
             }
         }
+        return expectWithdrawAmount.compareTo(BigInteger.ZERO) > 0 ? expectWithdrawAmount : BigInteger.ZERO;
     }
 
     public void modifyMinJoinDeposit(BigInteger value) {
@@ -380,10 +346,11 @@ public class DepositOthersManager {
 
         sb.append(",\"depositList\":");
         sb.append('[');
-        for (ConsensusDepositInfo info : depositList) {
-            sb.append(info.toString()).append(',');
+        int depositSize = depositIndex.size();
+        for (int i = 0; i < depositSize; i++) {
+            sb.append(depositIndex.get(i).toString()).append(',');
         }
-        if (depositList.size() > 0) {
+        if (depositSize > 0) {
             sb.deleteCharAt(sb.length() - 1);
         }
         sb.append(']');
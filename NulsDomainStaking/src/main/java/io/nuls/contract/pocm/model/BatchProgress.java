@@ -0,0 +1,41 @@
+package io.nuls.contract.pocm.model;
+
+/**
+ * 分批处理进度
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class BatchProgress {
+    // 质押者数量
+    private int stakers;
+    // 分批领取奖励的游标
+    private int receiveCursor;
+    // 分批退出的游标
+    private int quitCursor;
+    // 分批放弃的游标
+    private int giveUpCursor;
+
+    public BatchProgress(int stakers, int receiveCursor, int quitCursor, int giveUpCursor) {
+        this.stakers = stakers;
+        this.receiveCursor = receiveCursor;
+        this.quitCursor = quitCursor;
+        this.giveUpCursor = giveUpCursor;
+    }
+
+    public int getStakers() {
+        return stakers;
+    }
+
+    public int getReceiveCursor() {
+        return receiveCursor;
+    }
+
+    public int getQuitCursor() {
+        return quitCursor;
+    }
+
+    public int getGiveUpCursor() {
+        return giveUpCursor;
+    }
+}
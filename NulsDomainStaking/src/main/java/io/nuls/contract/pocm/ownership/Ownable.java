@@ -124,6 +124,9 @@ public class Ownable {
         BigInteger balance = wrapper.balanceOf(Msg.address());
         require(balance.compareTo(value) >= 0, "No enough balance");
         wrapper.transfer(to, value);
+        if (nrc20.equals(pi.candyToken)) {
+            pi.syncCandyBalance();
+        }
     }
 
     public void transferOtherAsset(int assetChainId, int assetId, Address to, BigInteger value) {
@@ -145,6 +148,7 @@ public class Ownable {
         BigInteger balance = wrapper.balanceOf(Msg.address());
         require(balance.compareTo(value) >= 0, "No enough balance");
         wrapper.transfer(to, value);
+        pi.syncCandyBalance();
     }
 
     protected void setPocmInfo(PocmInfo pi) {
@@ -0,0 +1,113 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm.util;
+
+import java.math.BigInteger;
+
+/**
+ * MasterChef方式的奖励累计计算: accPerShare按PRECISION(1e12)放大保存
+ * 所有结果均为非负数向下取整，乘积经边界检查确认不超过long范围时使用long计算，否则使用BigInteger
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class RewardAccumulator {
+
+    public static final long PRECISION = 1000000000000L;
+    public static final BigInteger PRECISION_BIG = BigInteger.valueOf(PRECISION);
+    /**
+     * 与PRECISION相乘不溢出long的最大值
+     */
+    static final long MAX_MULTIPLICAND = Long.MAX_VALUE / PRECISION;
+
+    /**
+     * 新增奖励后的累计每份收益: accPerShare + reward * 1e12 / supply
+     * supply为0时无人分配，返回原值
+     */
+    public static BigInteger accumulate(BigInteger accPerShare, BigInteger reward, BigInteger supply) {
+        if (reward.signum() <= 0 || supply.signum() <= 0) {
+            return accPerShare;
+        }
+        if (fitsLong(reward) && fitsLong(supply)) {
+            long increment = increment(reward.longValue(), supply.longValue());
+            if (increment >= 0) {
+                return accPerShare.add(BigInteger.valueOf(increment));
+            }
+        }
+        return accPerShare.add(reward.multiply(PRECISION_BIG).divide(supply));
+    }
+
+    /**
+     * reward * 1e12 / supply 拆分为 (reward / supply) * 1e12 + (reward % supply) * 1e12 / supply，结果不变
+     * 两项乘积及其和均不超过long范围时返回结果，否则返回-1
+     */
+    static long increment(long reward, long supply) {
+        long quotient = reward / supply;
+        long remainder = reward % supply;
+        if (quotient > MAX_MULTIPLICAND || remainder > MAX_MULTIPLICAND) {
+            return -1;
+        }
+        long high = quotient * PRECISION;
+        long low = remainder * PRECISION / supply;
+        if (high > Long.MAX_VALUE - low) {
+            return -1;
+        }
+        return high + low;
+    }
+
+    /**
+     * 按份额计算的累计收益: amount * accPerShare / 1e12，用于计算rewardDebt
+     */
+    public static BigInteger accrued(BigInteger amount, BigInteger accPerShare) {
+        if (fitsLong(amount)) {
+            return accrued(amount.longValue(), accPerShare);
+        }
+        return amount.multiply(accPerShare).divide(PRECISION_BIG);
+    }
+
+    public static BigInteger accrued(long amount, BigInteger accPerShare) {
+        if (amount == 0 || accPerShare.signum() == 0) {
+            return BigInteger.ZERO;
+        }
+        if (amount > 0 && fitsLong(accPerShare) && amount <= Long.MAX_VALUE / accPerShare.longValue()) {
+            return BigInteger.valueOf(amount * accPerShare.longValue() / PRECISION);
+        }
+        return BigInteger.valueOf(amount).multiply(accPerShare).divide(PRECISION_BIG);
+    }
+
+    /**
+     * 待领取收益: amount * accPerShare / 1e12 - rewardDebt
+     */
+    public static BigInteger pending(BigInteger amount, BigInteger accPerShare, BigInteger rewardDebt) {
+        return accrued(amount, accPerShare).subtract(rewardDebt);
+    }
+
+    public static BigInteger pending(long amount, BigInteger accPerShare, BigInteger rewardDebt) {
+        return accrued(amount, accPerShare).subtract(rewardDebt);
+    }
+
+    private static boolean fitsLong(BigInteger value) {
+        return value.signum() >= 0 && value.bitLength() < 64;
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import io.nuls.contract.sdk.Address;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 按链上规则转换合约方法的参数和返回值:
+ * 每个参数都以String[]传入，标量取第一个元素，数组逐个转换；
+ * 返回值为数组、集合或Map时转为JSON，其余调用toString
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+final class Arguments {
+
+    private Arguments() {
+    }
+
+    static Object[] convert(Class<?>[] types, String[][] args) {
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            values[i] = convert(types[i], args == null ? null : args[i]);
+        }
+        return values;
+    }
+
+    static Object convert(Class<?> type, String[] arg) {
+        if (type.isArray() && type != String[][].class) {
+            if (arg == null) {
+                return null;
+            }
+            Class<?> component = type.getComponentType();
+            if (component == String.class) {
+                return arg;
+            }
+            Object array = Array.newInstance(component, arg.length);
+            for (int i = 0; i < arg.length; i++) {
+                Array.set(array, i, scalar(component, arg[i]));
+            }
+            return array;
+        }
+        return scalar(type, arg == null || arg.length == 0 ? null : arg[0]);
+    }
+
+    private static Object scalar(Class<?> type, String value) {
+        if (type == String.class) {
+            return value;
+        }
+        if (value == null || value.length() == 0) {
+            if (type.isPrimitive()) {
+                throw new RevertException("empty value for " + type.getName() + " parameter");
+            }
+            return null;
+        }
+        try {
+            if (type == Address.class) {
+                return new Address(value);
+            }
+            if (type == BigInteger.class) {
+                return new BigInteger(value);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+            if (type == int.class || type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == long.class || type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == boolean.class || type == Boolean.class) {
+                return Boolean.valueOf(value);
+            }
+            if (type == short.class || type == Short.class) {
+                return Short.valueOf(value);
+            }
+            if (type == byte.class || type == Byte.class) {
+                return Byte.valueOf(value);
+            }
+            if (type == double.class || type == Double.class) {
+                return Double.valueOf(value);
+            }
+            if (type == float.class || type == Float.class) {
+                return Float.valueOf(value);
+            }
+            if (type == char.class || type == Character.class) {
+                return value.charAt(0);
+            }
+        } catch (NumberFormatException e) {
+            throw new RevertException("invalid " + type.getName() + " parameter: " + value);
+        }
+        throw new IllegalArgumentException("unsupported parameter type: " + type.getName());
+    }
+
+    static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.getClass().isArray() || value instanceof Collection || value instanceof Map) {
+            StringBuilder sb = new StringBuilder();
+            appendJson(sb, value);
+            return sb.toString();
+        }
+        return value.toString();
+    }
+
+    private static void appendJson(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value.getClass().isArray()) {
+            sb.append('[');
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendJson(sb, Array.get(value, i));
+            }
+            sb.append(']');
+        } else if (value instanceof Collection) {
+            sb.append('[');
+            Iterator<?> iterator = ((Collection<?>) value).iterator();
+            while (iterator.hasNext()) {
+                appendJson(sb, iterator.next());
+                if (iterator.hasNext()) {
+                    sb.append(',');
+                }
+            }
+            sb.append(']');
+        } else if (value instanceof Map) {
+            sb.append('{');
+            Iterator<? extends Map.Entry<?, ?>> iterator = ((Map<?, ?>) value).entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<?, ?> entry = iterator.next();
+                appendString(sb, String.valueOf(entry.getKey()));
+                sb.append(':');
+                appendJson(sb, entry.getValue());
+                if (iterator.hasNext()) {
+                    sb.append(',');
+                }
+            }
+            sb.append('}');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            appendString(sb, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
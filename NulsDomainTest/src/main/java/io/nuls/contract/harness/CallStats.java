@@ -0,0 +1,85 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+/**
+ * 一笔交易内的调用计数
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class CallStats {
+
+    private int crossContractCalls;
+    private int transfers;
+    private int events;
+    private int externalCmds;
+
+    void addCrossContractCall() {
+        crossContractCalls++;
+    }
+
+    void addTransfer() {
+        transfers++;
+    }
+
+    void addEvent() {
+        events++;
+    }
+
+    void addExternalCmd() {
+        externalCmds++;
+    }
+
+    /**
+     * 合约发起的跨合约调用次数，包括NRC20Wrapper对代币合约的调用
+     */
+    public int getCrossContractCalls() {
+        return crossContractCalls;
+    }
+
+    /**
+     * 合约发起的转账次数
+     */
+    public int getTransfers() {
+        return transfers;
+    }
+
+    public int getEvents() {
+        return events;
+    }
+
+    /**
+     * invokeExternalCmd的调用次数(共识委托、退出委托、查询节点)
+     */
+    public int getExternalCmds() {
+        return externalCmds;
+    }
+
+    @Override
+    public String toString() {
+        return "{crossContractCalls=" + crossContractCalls + ", transfers=" + transfers
+                + ", events=" + events + ", externalCmds=" + externalCmds + "}";
+    }
+}
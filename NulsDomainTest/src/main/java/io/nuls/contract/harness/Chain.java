@@ -0,0 +1,557 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+import io.nuls.contract.sdk.annotation.Payable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static io.nuls.contract.sdk.Utils.require;
+import static io.nuls.contract.sdk.Utils.revert;
+
+/**
+ * 进程内的合约执行环境，替代链上虚拟机运行合约:
+ * 合约之间的callWithReturnValue、转账触发的_payable、invokeExternalCmd和Utils.deploy都在此路由，
+ * 并记录每笔交易发出的事件和跨合约调用次数。
+ * <p>
+ * 交易回滚时只恢复NULS余额、锁定余额、共识委托和事件，合约对象的字段不会回滚，
+ * 测试中交易回滚后不应再依赖该交易修改过的合约状态。
+ * <p>
+ * SDK替身通过{@link #current()}找到当前线程的Chain，新建的Chain自动成为当前线程的Chain。
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class Chain {
+
+    public static final long GAS_LIMIT = 10000000L;
+    public static final int CHAIN_ID = 2;
+    public static final int ASSET_ID = 1;
+    public static final BigInteger ONE_NULS = BigInteger.valueOf(100000000L);
+    // 共识奖励系统调用的发起者
+    public static final Address SYSTEM = new Address("tNULSeBaSystem");
+    // 出块间隔，秒
+    private static final long BLOCK_INTERVAL = 10;
+    private static final long GENESIS_TIME = 1760745600L;
+
+    private static final ThreadLocal<Chain> CURRENT = new ThreadLocal<Chain>();
+
+    private final Map<Address, Object> contracts = new HashMap<Address, Object>();
+    private final Map<Address, Class<?>> templates = new HashMap<Address, Class<?>>();
+    private final Map<Address, BigInteger> balances = new HashMap<Address, BigInteger>();
+    private final Map<Address, BigInteger> locked = new HashMap<Address, BigInteger>();
+    // 非NULS资产: "chainId-assetId" -> 地址 -> 余额
+    private final Map<String, Map<Address, BigInteger>> assets = new HashMap<String, Map<Address, BigInteger>>();
+    private final Map<String, Address> publicKeys = new HashMap<String, Address>();
+    private final Map<Address, String> accountKeys = new HashMap<Address, String>();
+    private final Map<Class<?>, Map<String, Method>> methodCache = new HashMap<Class<?>, Map<String, Method>>();
+    private final LinkedList<Frame> frames = new LinkedList<Frame>();
+    private final List<Event> events = new ArrayList<Event>();
+    private final Journal journal = new Journal();
+    private final Consensus consensus = new Consensus(this, journal);
+    private CallStats stats = new CallStats();
+    private boolean recordEvents = true;
+    private long blockNumber = 1;
+    private int nextAccount = 1;
+    private int nextContract = 1;
+
+    public Chain() {
+        this.activate();
+    }
+
+    public static Chain current() {
+        Chain chain = CURRENT.get();
+        if (chain == null) {
+            throw new IllegalStateException("No chain on this thread");
+        }
+        return chain;
+    }
+
+    public void activate() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * 关闭后事件只计数不保存，基准测试中避免事件列表无限增长
+     */
+    public void setRecordEvents(boolean recordEvents) {
+        this.recordEvents = recordEvents;
+    }
+
+    // ---------------------------------------------------------------- 账户、区块
+
+    /**
+     * 创建普通账户并发放初始余额，公钥可通过{@link #publicKey(Address)}获取
+     */
+    public Address account(BigInteger balance) {
+        Address address = new Address(String.format("tNULSeBaUser%06d", nextAccount));
+        String publicKey = String.format("02%064x", nextAccount);
+        nextAccount++;
+        publicKeys.put(publicKey, address);
+        accountKeys.put(address, publicKey);
+        balances.put(address, balance);
+        return address;
+    }
+
+    public String publicKey(Address account) {
+        String publicKey = accountKeys.get(account);
+        if (publicKey == null) {
+            throw new IllegalArgumentException("Not an account: " + account);
+        }
+        return publicKey;
+    }
+
+    public String addressOfPublicKey(String publicKey) {
+        Address address = publicKeys.get(publicKey);
+        require(address != null, "invalid public key");
+        return address.toString();
+    }
+
+    public long blockNumber() {
+        return blockNumber;
+    }
+
+    public long blockTimestamp() {
+        return GENESIS_TIME + blockNumber * BLOCK_INTERVAL;
+    }
+
+    public void mine(int blocks) {
+        blockNumber += blocks;
+    }
+
+    public BigInteger balance(Address address) {
+        BigInteger balance = balances.get(address);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    public BigInteger totalBalance(Address address) {
+        BigInteger lockedBalance = locked.get(address);
+        return lockedBalance == null ? this.balance(address) : this.balance(address).add(lockedBalance);
+    }
+
+    /**
+     * 合约委托到共识节点的金额
+     */
+    public BigInteger consensusDeposit(Address contract) {
+        return consensus.depositOf(contract);
+    }
+
+    public List<Event> events() {
+        return Collections.unmodifiableList(events);
+    }
+
+    public void clearEvents() {
+        events.clear();
+    }
+
+    // ---------------------------------------------------------------- 部署
+
+    /**
+     * 以from为创建者部署合约，构造参数按类型直接传入
+     */
+    public Address deploy(Address from, Class<?> type, Object... constructorArgs) {
+        Constructor<?> constructor = null;
+        for (Constructor<?> candidate : type.getConstructors()) {
+            if (candidate.getParameterTypes().length == constructorArgs.length) {
+                constructor = candidate;
+                break;
+            }
+        }
+        if (constructor == null) {
+            throw new IllegalArgumentException("No constructor of " + type.getName() + " takes " + constructorArgs.length + " arguments");
+        }
+        Address address = this.instantiate(from, constructor, constructorArgs);
+        journal.commit();
+        return address;
+    }
+
+    /**
+     * 登记合约模板，供合约内Utils.deploy按模板地址复制
+     */
+    public void registerTemplate(Address codeCopy, Class<?> type) {
+        templates.put(codeCopy, type);
+    }
+
+    public Address deployCopy(Address codeCopy, String[] constructorArgs) {
+        Class<?> type = templates.get(codeCopy);
+        require(type != null, "code copy not exist: " + codeCopy);
+        int size = constructorArgs == null ? 0 : constructorArgs.length;
+        for (Constructor<?> constructor : type.getConstructors()) {
+            Class<?>[] types = constructor.getParameterTypes();
+            if (types.length == size) {
+                Object[] values = new Object[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = Arguments.convert(types[i], new String[]{constructorArgs[i]});
+                }
+                return this.instantiate(this.address(), constructor, values);
+            }
+        }
+        revert("no constructor of " + type.getName() + " takes " + size + " arguments");
+        return null;
+    }
+
+    private Address instantiate(Address from, Constructor<?> constructor, Object[] args) {
+        Address address = new Address(String.format("tNULSeBaContract%06d", nextContract++));
+        frames.push(new Frame(from, address, BigInteger.ZERO));
+        try {
+            contracts.put(address, constructor.newInstance(args));
+        } catch (InvocationTargetException e) {
+            throw unwrap(e);
+        } catch (InstantiationException e) {
+            throw new IllegalStateException(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            frames.pop();
+        }
+        return address;
+    }
+
+    public boolean isContract(Address address) {
+        return contracts.containsKey(address);
+    }
+
+    public <T> T contract(Address address, Class<T> type) {
+        return type.cast(contracts.get(address));
+    }
+
+    // ---------------------------------------------------------------- 交易
+
+    /**
+     * 以账户from发起一笔合约调用交易，每个参数以String[]传入，与链上的调用参数一致
+     *
+     * @throws RevertException 交易回滚，余额、委托和事件恢复到交易前
+     */
+    public Receipt call(Address from, Address to, BigInteger value, String method, String[]... args) {
+        require(this.isContract(to), "not a contract: " + to);
+        CallStats txStats = this.begin();
+        int eventCount = events.size();
+        try {
+            Method target = this.method(contracts.get(to), method, args.length);
+            this.move(from, to, value);
+            Object result = this.invoke(from, to, value, target, args);
+            return this.commit(result, eventCount, txStats);
+        } catch (RuntimeException e) {
+            this.rollback(eventCount);
+            throw e;
+        }
+    }
+
+    /**
+     * 模拟共识奖励发放: 系统调用合约的_payable(String[][])，奖励金额同时计入合约余额
+     */
+    public Receipt consensusReward(Address contract, BigInteger amount) {
+        require(this.isContract(contract), "not a contract: " + contract);
+        CallStats txStats = this.begin();
+        int eventCount = events.size();
+        try {
+            Object instance = contracts.get(contract);
+            Method payable = instance.getClass().getMethod("_payable", String[][].class);
+            journal.put(balances, contract, this.balance(contract).add(amount));
+            String[][] args = new String[][]{new String[]{contract.toString(), amount.toString()}};
+            frames.push(new Frame(SYSTEM, contract, amount));
+            try {
+                payable.invoke(instance, new Object[]{args});
+            } finally {
+                frames.pop();
+            }
+            return this.commit(null, eventCount, txStats);
+        } catch (InvocationTargetException e) {
+            this.rollback(eventCount);
+            throw unwrap(e);
+        } catch (NoSuchMethodException e) {
+            this.rollback(eventCount);
+            throw new IllegalStateException(e);
+        } catch (IllegalAccessException e) {
+            this.rollback(eventCount);
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            this.rollback(eventCount);
+            throw e;
+        }
+    }
+
+    /**
+     * 注册共识节点，状态正常，委托总额为0
+     */
+    public void registerAgent(String agentHash, Address agentAddress, BigInteger agentValue) {
+        consensus.registerAgent(agentHash, agentAddress, agentValue);
+    }
+
+    /**
+     * 注销共识节点，节点上的委托退回委托合约
+     */
+    public void stopAgent(String agentHash) {
+        consensus.stopAgent(agentHash);
+        journal.commit();
+    }
+
+    private CallStats begin() {
+        require(frames.isEmpty(), "transaction in progress");
+        stats = new CallStats();
+        return stats;
+    }
+
+    private Receipt commit(Object result, int eventCount, CallStats txStats) {
+        journal.commit();
+        List<Event> txEvents = recordEvents ? new ArrayList<Event>(events.subList(eventCount, events.size())) : Collections.<Event>emptyList();
+        return new Receipt(Arguments.format(result), txEvents, txStats);
+    }
+
+    private void rollback(int eventCount) {
+        journal.rollback();
+        frames.clear();
+        if (recordEvents) {
+            events.subList(eventCount, events.size()).clear();
+        }
+    }
+
+    // ---------------------------------------------------------------- 合约内调用(SDK替身使用)
+
+    public Address sender() {
+        return this.frame().sender;
+    }
+
+    public Address address() {
+        return this.frame().address;
+    }
+
+    public BigInteger value() {
+        return this.frame().value;
+    }
+
+    private Frame frame() {
+        Frame frame = frames.peek();
+        if (frame == null) {
+            throw new IllegalStateException("No contract call in progress");
+        }
+        return frame;
+    }
+
+    public String callContract(Address to, String method, String[][] args, BigInteger value) {
+        stats.addCrossContractCall();
+        require(this.isContract(to), "not a contract: " + to);
+        Address from = this.address();
+        Method target = this.method(contracts.get(to), method, args == null ? 0 : args.length);
+        if (value == null) {
+            value = BigInteger.ZERO;
+        }
+        this.move(from, to, value);
+        return Arguments.format(this.invoke(from, to, value, target, args));
+    }
+
+    /**
+     * 从当前合约转账，接收方为合约时执行其@Payable的_payable()，未标注@Payable的合约拒绝转入
+     */
+    public void transfer(Address to, BigInteger value) {
+        stats.addTransfer();
+        Address from = this.address();
+        this.move(from, to, value);
+        if (this.isContract(to)) {
+            Method payable = this.method(contracts.get(to), "_payable", 0);
+            this.invoke(from, to, value, payable, null);
+        }
+    }
+
+    public void transferLocked(Address to, BigInteger value, long unlockTime) {
+        stats.addTransfer();
+        Address from = this.address();
+        this.move(from, to, value);
+        this.lock(to, value);
+    }
+
+    public Object invokeExternalCmd(String cmdName, String[] args) {
+        stats.addExternalCmd();
+        return consensus.invoke(cmdName, args, this.address());
+    }
+
+    public void emit(Event event) {
+        stats.addEvent();
+        if (recordEvents) {
+            events.add(event);
+        }
+    }
+
+    public BigInteger assetBalance(int assetChainId, int assetId, Address address) {
+        if (assetChainId == CHAIN_ID && assetId == ASSET_ID) {
+            return this.balance(address);
+        }
+        Map<Address, BigInteger> ledger = assets.get(assetChainId + "-" + assetId);
+        BigInteger balance = ledger == null ? null : ledger.get(address);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    public void transferAsset(int assetChainId, int assetId, Address to, BigInteger value) {
+        if (assetChainId == CHAIN_ID && assetId == ASSET_ID) {
+            this.transfer(to, value);
+            return;
+        }
+        stats.addTransfer();
+        Address from = this.address();
+        String key = assetChainId + "-" + assetId;
+        Map<Address, BigInteger> ledger = assets.get(key);
+        if (ledger == null) {
+            ledger = new HashMap<Address, BigInteger>();
+            assets.put(key, ledger);
+        }
+        BigInteger fromBalance = ledger.get(from);
+        require(fromBalance != null && fromBalance.compareTo(value) >= 0, "Insufficient asset balance");
+        BigInteger toBalance = ledger.get(to);
+        journal.put(ledger, from, fromBalance.subtract(value));
+        journal.put(ledger, to, toBalance == null ? value : toBalance.add(value));
+    }
+
+    /**
+     * 发放非NULS资产，用于准备测试数据
+     */
+    public void mintAsset(int assetChainId, int assetId, Address to, BigInteger value) {
+        String key = assetChainId + "-" + assetId;
+        Map<Address, BigInteger> ledger = assets.get(key);
+        if (ledger == null) {
+            ledger = new HashMap<Address, BigInteger>();
+            assets.put(key, ledger);
+        }
+        BigInteger balance = ledger.get(to);
+        ledger.put(to, balance == null ? value : balance.add(value));
+    }
+
+    // ---------------------------------------------------------------- 余额
+
+    private void move(Address from, Address to, BigInteger value) {
+        if (value.signum() == 0) {
+            return;
+        }
+        require(value.signum() > 0, "transfer value not good");
+        BigInteger fromBalance = this.balance(from);
+        require(fromBalance.compareTo(value) >= 0, "Insufficient balance: " + from);
+        journal.put(balances, from, fromBalance.subtract(value));
+        journal.put(balances, to, this.balance(to).add(value));
+    }
+
+    void lock(Address address, BigInteger value) {
+        BigInteger balance = this.balance(address);
+        require(balance.compareTo(value) >= 0, "Insufficient balance: " + address);
+        BigInteger lockedBalance = locked.get(address);
+        journal.put(balances, address, balance.subtract(value));
+        journal.put(locked, address, lockedBalance == null ? value : lockedBalance.add(value));
+    }
+
+    void unlock(Address address, BigInteger value) {
+        journal.put(locked, address, locked.get(address).subtract(value));
+        journal.put(balances, address, this.balance(address).add(value));
+    }
+
+    // ---------------------------------------------------------------- 反射调用
+
+    private Object invoke(Address from, Address to, BigInteger value, Method method, String[][] args) {
+        require(value.signum() == 0 || method.isAnnotationPresent(Payable.class), method.getName() + " is not payable");
+        Object[] params = Arguments.convert(method.getParameterTypes(), args);
+        frames.push(new Frame(from, to, value));
+        try {
+            return method.invoke(contracts.get(to), params);
+        } catch (InvocationTargetException e) {
+            throw unwrap(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            frames.pop();
+        }
+    }
+
+    /**
+     * 按方法名和参数个数查找public方法，同名同参数个数的重载在调用时视为错误
+     */
+    private Method method(Object contract, String name, int argCount) {
+        Class<?> type = contract.getClass();
+        Map<String, Method> methods = methodCache.get(type);
+        if (methods == null) {
+            methods = new HashMap<String, Method>();
+            for (Method method : type.getMethods()) {
+                if (method.isBridge() || method.getDeclaringClass() == Object.class) {
+                    continue;
+                }
+                String key = method.getName() + "/" + method.getParameterTypes().length;
+                if (methods.containsKey(key)) {
+                    // 重载无法只凭参数个数区分
+                    methods.put(key, null);
+                } else {
+                    methods.put(key, method);
+                }
+            }
+            methodCache.put(type, methods);
+        }
+        String key = name + "/" + argCount;
+        Method method = methods.get(key);
+        if (method == null && methods.containsKey(key)) {
+            throw new IllegalStateException("Ambiguous method " + key + " in " + type.getName());
+        }
+        require(method != null, "method not exist: " + key);
+        return method;
+    }
+
+    private static RuntimeException unwrap(InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * 把任意值转为单元素的调用参数
+     */
+    public static String[] arg(Object value) {
+        return new String[]{value == null ? null : value.toString()};
+    }
+
+    public static BigInteger nuls(long amount) {
+        return ONE_NULS.multiply(BigInteger.valueOf(amount));
+    }
+
+    private static class Frame {
+        private final Address sender;
+        private final Address address;
+        private final BigInteger value;
+
+        Frame(Address sender, Address address, BigInteger value) {
+            this.sender = sender;
+            this.address = address;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import io.nuls.contract.sdk.Address;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.nuls.contract.sdk.Utils.require;
+import static io.nuls.contract.sdk.Utils.revert;
+
+/**
+ * 共识模块替身，处理合约通过invokeExternalCmd发起的节点查询、委托和退出委托:
+ * 委托金额从合约余额转入锁定余额，退出委托或节点注销时退回合约余额
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+class Consensus {
+
+    private final Chain chain;
+    private final Journal journal;
+    // 节点: agentHash -> 创建者地址、保证金、委托总额、注销高度(-1为正常)
+    private final Map<String, Address> agentAddresses = new HashMap<String, Address>();
+    private final Map<String, BigInteger> agentValues = new HashMap<String, BigInteger>();
+    private final Map<String, BigInteger> agentTotals = new HashMap<String, BigInteger>();
+    private final Map<String, Long> agentStopHeights = new HashMap<String, Long>();
+    // 委托: 委托交易hash -> 节点、委托合约、金额
+    private final Map<String, String> depositAgents = new HashMap<String, String>();
+    private final Map<String, Address> depositOwners = new HashMap<String, Address>();
+    private final Map<String, BigInteger> depositAmounts = new HashMap<String, BigInteger>();
+    private long nextTxId = 1;
+
+    Consensus(Chain chain, Journal journal) {
+        this.chain = chain;
+        this.journal = journal;
+    }
+
+    void registerAgent(String agentHash, Address agentAddress, BigInteger agentValue) {
+        require(!agentAddresses.containsKey(agentHash), "agent exists: " + agentHash);
+        agentAddresses.put(agentHash, agentAddress);
+        agentValues.put(agentHash, agentValue);
+        agentTotals.put(agentHash, BigInteger.ZERO);
+        agentStopHeights.put(agentHash, -1L);
+    }
+
+    /**
+     * 注销节点，节点上的委托全部退回委托合约
+     */
+    void stopAgent(String agentHash) {
+        require(agentAddresses.containsKey(agentHash), "agent not exist: " + agentHash);
+        agentStopHeights.put(agentHash, chain.blockNumber());
+        for (String txHash : depositAgents.keySet().toArray(new String[0])) {
+            if (agentHash.equals(depositAgents.get(txHash))) {
+                this.unlock(txHash);
+            }
+        }
+    }
+
+    Object invoke(String cmdName, String[] args, Address caller) {
+        if ("cs_getContractAgentInfo".equals(cmdName)) {
+            return this.agentInfo(args[0]);
+        }
+        if ("cs_contractDeposit".equals(cmdName)) {
+            return this.deposit(args[0], new BigInteger(args[1]), caller);
+        }
+        if ("cs_contractWithdraw".equals(cmdName)) {
+            return this.withdraw(args[0], caller);
+        }
+        revert("unsupported external cmd: " + cmdName);
+        return null;
+    }
+
+    /**
+     * [0]创建者地址 [1]打包地址 [2]奖励地址 [3]保证金 [4]委托总额 [5]佣金比例 [6]创建时间 [7]状态 [8]注销高度
+     */
+    private String[] agentInfo(String agentHash) {
+        Address address = agentAddresses.get(agentHash);
+        if (address == null) {
+            return null;
+        }
+        return new String[]{
+                address.toString(),
+                address.toString(),
+                address.toString(),
+                agentValues.get(agentHash).toString(),
+                agentTotals.get(agentHash).toString(),
+                "10",
+                "0",
+                "1",
+                agentStopHeights.get(agentHash).toString()
+        };
+    }
+
+    private String deposit(String agentHash, BigInteger amount, Address caller) {
+        require(agentAddresses.containsKey(agentHash) && agentStopHeights.get(agentHash) == -1L, "agent not available: " + agentHash);
+        require(amount.signum() > 0, "deposit amount not good");
+        chain.lock(caller, amount);
+        String txHash = "deposit" + (nextTxId++);
+        journal.put(agentTotals, agentHash, agentTotals.get(agentHash).add(amount));
+        journal.put(depositAgents, txHash, agentHash);
+        journal.put(depositOwners, txHash, caller);
+        journal.put(depositAmounts, txHash, amount);
+        return txHash;
+    }
+
+    private String withdraw(String txHash, Address caller) {
+        require(caller.equals(depositOwners.get(txHash)), "deposit not exist: " + txHash);
+        this.unlock(txHash);
+        return "withdraw" + (nextTxId++);
+    }
+
+    private void unlock(String txHash) {
+        String agentHash = depositAgents.get(txHash);
+        BigInteger amount = depositAmounts.get(txHash);
+        chain.unlock(depositOwners.get(txHash), amount);
+        journal.put(agentTotals, agentHash, agentTotals.get(agentHash).subtract(amount));
+        journal.remove(depositAgents, txHash);
+        journal.remove(depositOwners, txHash);
+        journal.remove(depositAmounts, txHash);
+    }
+
+    BigInteger depositOf(Address contract) {
+        BigInteger total = BigInteger.ZERO;
+        for (Map.Entry<String, Address> entry : depositOwners.entrySet()) {
+            if (entry.getValue().equals(contract)) {
+                total = total.add(depositAmounts.get(entry.getKey()));
+            }
+        }
+        return total;
+    }
+}
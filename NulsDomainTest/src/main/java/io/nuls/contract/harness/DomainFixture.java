@@ -0,0 +1,116 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import io.nuls.contract.NulsDomain;
+import io.nuls.contract.pocm.NulsDomainStaking;
+import io.nuls.contract.sdk.Address;
+import io.nuls.token.NulsDomainNRC721;
+
+import java.math.BigInteger;
+
+import static io.nuls.contract.harness.Chain.arg;
+import static io.nuls.contract.harness.Chain.nuls;
+
+/**
+ * 按上线顺序部署并互相关联NulsDomain、NulsDomainNRC721(.ai后缀)和NulsDomainStaking:
+ * staking初始化时从模板部署糖果代币并把共识奖励接收者设为domain合约
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DomainFixture {
+
+    // staking合约在测试网部署糖果代币时复制的模板地址
+    public static final Address CANDY_TEMPLATE = new Address("tNULSeBaMwGu9Xt8YLBiCaemgHciekfh1ScfkD");
+    public static final BigInteger ACCOUNT_BALANCE = nuls(100000000L);
+
+    public final Chain chain;
+    public final Address owner;
+    public final Address official;
+    public final Address treasury;
+    public final Address domain;
+    public final Address nrc721;
+    public final Address staking;
+
+    public DomainFixture() {
+        chain = new Chain();
+        owner = chain.account(ACCOUNT_BALANCE);
+        official = chain.account(ACCOUNT_BALANCE);
+        treasury = chain.account(BigInteger.ZERO);
+        chain.registerTemplate(CANDY_TEMPLATE, SimpleNRC20.class);
+
+        domain = chain.deploy(owner, NulsDomain.class);
+        nrc721 = chain.deploy(owner, NulsDomainNRC721.class, "ai", "AI");
+        staking = chain.deploy(owner, NulsDomainStaking.class);
+
+        chain.call(owner, staking, BigInteger.ZERO, "initialize", arg(treasury), arg(official), arg(domain));
+        chain.call(owner, staking, BigInteger.ZERO, "updateTotalAllocation");
+        chain.call(owner, nrc721, BigInteger.ZERO, "initialize", arg(official), arg(domain));
+        chain.call(owner, domain, BigInteger.ZERO, "initialize", arg(staking), arg(treasury), arg(official), arg(nrc721));
+    }
+
+    public Address user() {
+        return chain.account(ACCOUNT_BALANCE);
+    }
+
+    /**
+     * 用户支付默认价格(100 NULS，前缀6位及以上)铸造并激活奖励
+     */
+    public Receipt mint(Address user, String name) {
+        return this.mint(user, name, nuls(100));
+    }
+
+    public Receipt mint(Address user, String name, BigInteger price) {
+        return chain.call(user, domain, price, "mint", arg(name), arg(chain.publicKey(user)));
+    }
+
+    public BigInteger tokenId(String name) {
+        return new BigInteger(chain.call(owner, domain, BigInteger.ZERO, "domainId", arg(name)).getResult());
+    }
+
+    public Receipt transferDomain(Address from, Address to, String name) {
+        return chain.call(from, nrc721, BigInteger.ZERO, "transferFrom", arg(from), arg(to), arg(this.tokenId(name)));
+    }
+
+    /**
+     * 注册一个共识节点并加入staking合约的委托节点列表
+     */
+    public void addAgent(String agentHash) {
+        chain.registerAgent(agentHash, chain.account(BigInteger.ZERO), nuls(20000));
+        chain.call(owner, staking, BigInteger.ZERO, "addOtherAgent", arg(agentHash));
+    }
+
+    /**
+     * staking合约收到共识奖励，下一个区块起domain合约可领取
+     */
+    public void consensusReward(BigInteger amount) {
+        chain.consensusReward(staking, amount);
+        chain.mine(1);
+    }
+
+    public NulsDomain domainContract() {
+        return chain.contract(domain, NulsDomain.class);
+    }
+}
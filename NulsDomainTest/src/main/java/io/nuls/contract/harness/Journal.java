@@ -0,0 +1,87 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 记录交易内对账本的修改，交易回滚时按相反顺序恢复
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+class Journal {
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    <K, V> void put(Map<K, V> map, K key, V value) {
+        record(map, key);
+        map.put(key, value);
+    }
+
+    <K, V> void remove(Map<K, V> map, K key) {
+        record(map, key);
+        map.remove(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> void record(Map<K, V> map, K key) {
+        entries.add(new Entry((Map<Object, Object>) map, key, map.containsKey(key), map.get(key)));
+    }
+
+    void commit() {
+        entries.clear();
+    }
+
+    void rollback() {
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            entries.get(i).undo();
+        }
+        entries.clear();
+    }
+
+    private static class Entry {
+        private final Map<Object, Object> map;
+        private final Object key;
+        private final boolean existed;
+        private final Object previous;
+
+        Entry(Map<Object, Object> map, Object key, boolean existed, Object previous) {
+            this.map = map;
+            this.key = key;
+            this.existed = existed;
+            this.previous = previous;
+        }
+
+        void undo() {
+            if (existed) {
+                map.put(key, previous);
+            } else {
+                map.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import io.nuls.contract.sdk.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一笔交易的执行结果
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class Receipt {
+
+    private final String result;
+    private final List<Event> events;
+    private final CallStats stats;
+
+    Receipt(String result, List<Event> events, CallStats stats) {
+        this.result = result;
+        this.events = events;
+        this.stats = stats;
+    }
+
+    /**
+     * 方法返回值，按链上规则转为字符串，无返回值时为null
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * 本交易发出的事件，Chain关闭事件记录时为空
+     */
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public <T extends Event> List<T> getEvents(Class<T> type) {
+        List<T> result = new ArrayList<T>();
+        for (Event event : events) {
+            if (type.isInstance(event)) {
+                result.add(type.cast(event));
+            }
+        }
+        return result;
+    }
+
+    public CallStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Block;
+import io.nuls.contract.sdk.Contract;
+import io.nuls.contract.sdk.Event;
+import io.nuls.contract.sdk.Msg;
+import io.nuls.contract.sdk.annotation.View;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.nuls.contract.sdk.Utils.emit;
+import static io.nuls.contract.sdk.Utils.require;
+
+/**
+ * 最简NRC20合约，作为staking合约部署糖果代币时复制的模板:
+ * 构造时向创建者发行 initialAmount * 10^decimals，transferLocked在解锁时间之前计入锁定余额
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class SimpleNRC20 implements Contract {
+
+    private final String name;
+    private final String symbol;
+    private final int decimals;
+    private final BigInteger totalSupply;
+    private final Map<Address, BigInteger> balances = new HashMap<Address, BigInteger>();
+    private final Map<Address, BigInteger> lockedBalances = new HashMap<Address, BigInteger>();
+    private final Map<Address, Map<Address, BigInteger>> allowed = new HashMap<Address, Map<Address, BigInteger>>();
+
+    public SimpleNRC20(String name, String symbol, BigInteger initialAmount, int decimals) {
+        this.name = name;
+        this.symbol = symbol;
+        this.decimals = decimals;
+        this.totalSupply = initialAmount.multiply(BigInteger.TEN.pow(decimals));
+        balances.put(Msg.sender(), totalSupply);
+        emit(new TransferEvent(null, Msg.sender(), totalSupply));
+    }
+
+    @View
+    public String name() {
+        return name;
+    }
+
+    @View
+    public String symbol() {
+        return symbol;
+    }
+
+    @View
+    public int decimals() {
+        return decimals;
+    }
+
+    @View
+    public BigInteger totalSupply() {
+        return totalSupply;
+    }
+
+    @View
+    public BigInteger balanceOf(Address owner) {
+        BigInteger balance = balances.get(owner);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    @View
+    public BigInteger lockedBalanceOf(Address owner) {
+        BigInteger balance = lockedBalances.get(owner);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    @View
+    public BigInteger allowance(Address owner, Address spender) {
+        Map<Address, BigInteger> spenders = allowed.get(owner);
+        BigInteger value = spenders == null ? null : spenders.get(spender);
+        return value == null ? BigInteger.ZERO : value;
+    }
+
+    public boolean transfer(Address to, BigInteger value) {
+        this.move(Msg.sender(), to, value);
+        return true;
+    }
+
+    public boolean transferLocked(Address to, BigInteger value, long unlockTime) {
+        if (unlockTime <= Block.timestamp()) {
+            return this.transfer(to, value);
+        }
+        this.debit(Msg.sender(), value);
+        lockedBalances.put(to, this.lockedBalanceOf(to).add(value));
+        emit(new TransferEvent(Msg.sender(), to, value));
+        return true;
+    }
+
+    public boolean transferFrom(Address from, Address to, BigInteger value) {
+        BigInteger allowance = this.allowance(from, Msg.sender());
+        require(allowance.compareTo(value) >= 0, "Insufficient allowance");
+        allowed.get(from).put(Msg.sender(), allowance.subtract(value));
+        this.move(from, to, value);
+        return true;
+    }
+
+    public boolean approve(Address spender, BigInteger value) {
+        require(value.signum() >= 0, "value not good");
+        Map<Address, BigInteger> spenders = allowed.get(Msg.sender());
+        if (spenders == null) {
+            spenders = new HashMap<Address, BigInteger>();
+            allowed.put(Msg.sender(), spenders);
+        }
+        spenders.put(spender, value);
+        return true;
+    }
+
+    private void move(Address from, Address to, BigInteger value) {
+        this.debit(from, value);
+        balances.put(to, this.balanceOf(to).add(value));
+        emit(new TransferEvent(from, to, value));
+    }
+
+    private void debit(Address from, BigInteger value) {
+        require(value.signum() >= 0, "value not good");
+        BigInteger balance = this.balanceOf(from);
+        require(balance.compareTo(value) >= 0, "Insufficient balance");
+        balances.put(from, balance.subtract(value));
+    }
+
+    public static class TransferEvent implements Event {
+        private final Address from;
+        private final Address to;
+        private final BigInteger value;
+
+        public TransferEvent(Address from, Address to, BigInteger value) {
+            this.from = from;
+            this.to = to;
+            this.value = value;
+        }
+
+        public Address getFrom() {
+            return from;
+        }
+
+        public Address getTo() {
+            return to;
+        }
+
+        public BigInteger getValue() {
+            return value;
+        }
+    }
+}
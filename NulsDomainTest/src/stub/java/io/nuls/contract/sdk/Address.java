@@ -0,0 +1,103 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.sdk;
+
+import io.nuls.contract.harness.Chain;
+
+import java.math.BigInteger;
+
+/**
+ * SDK替身: 余额、转账和跨合约调用都交给当前线程的{@link Chain}处理
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class Address {
+
+    private final String address;
+
+    public Address(String address) {
+        this.address = address;
+    }
+
+    public BigInteger balance() {
+        return Chain.current().balance(this);
+    }
+
+    public BigInteger totalBalance() {
+        return Chain.current().totalBalance(this);
+    }
+
+    /**
+     * 从当前合约转账到此地址，此地址为合约时调用其_payable
+     */
+    public void transfer(BigInteger value) {
+        Chain.current().transfer(this, value);
+    }
+
+    public void transferLocked(BigInteger value, long unlockTime) {
+        Chain.current().transferLocked(this, value, unlockTime);
+    }
+
+    public void call(String methodName, String methodDesc, String[][] args, BigInteger value) {
+        Chain.current().callContract(this, methodName, args, value);
+    }
+
+    public String callWithReturnValue(String methodName, String methodDesc, String[][] args, BigInteger value) {
+        return Chain.current().callContract(this, methodName, args, value);
+    }
+
+    /**
+     * 不支持多资产转入，multyAssetValues不为空时回滚
+     */
+    public String[] callWithReturnValue(String methodName, String methodDesc, String[][] args, BigInteger value, MultyAssetValue[] multyAssetValues) {
+        Utils.require(multyAssetValues == null || multyAssetValues.length == 0, "multy asset call is not supported");
+        return new String[]{Chain.current().callContract(this, methodName, args, value)};
+    }
+
+    public boolean isContract() {
+        return Chain.current().isContract(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return address.equals(((Address) o).address);
+    }
+
+    @Override
+    public int hashCode() {
+        return address.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return address;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.sdk;
+
+import io.nuls.contract.harness.Chain;
+import io.nuls.contract.harness.RevertException;
+
+/**
+ * SDK替身: revert抛出{@link RevertException}，其余方法交给当前线程的{@link Chain}处理
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class Utils {
+
+    private Utils() {
+    }
+
+    public static void require(boolean expression) {
+        if (!expression) {
+            revert();
+        }
+    }
+
+    public static void require(boolean expression, String errorMessage) {
+        if (!expression) {
+            revert(errorMessage);
+        }
+    }
+
+    public static void revert() {
+        revert(null);
+    }
+
+    public static void revert(String errorMessage) {
+        throw new RevertException(errorMessage);
+    }
+
+    public static void emit(Event event) {
+        Chain.current().emit(event);
+    }
+
+    public static Object invokeExternalCmd(String cmdName, String[] args) {
+        return Chain.current().invokeExternalCmd(cmdName, args);
+    }
+
+    public static String getAddressByPublicKey(String publicKey) {
+        return Chain.current().addressOfPublicKey(publicKey);
+    }
+
+    /**
+     * 以codeCopy登记的模板类创建新合约，当前合约为创建者
+     */
+    public static String deploy(String[] args, Address codeCopy, String[] constructorArgs) {
+        return Chain.current().deployCopy(codeCopy, constructorArgs).toString();
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.sdk.token;
+
+import io.nuls.contract.harness.Chain;
+import io.nuls.contract.sdk.Address;
+
+import java.math.BigInteger;
+
+/**
+ * SDK替身: 链上资产，由{@link Chain}按资产分别记账
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class AssetWrapper implements Token {
+
+    private final int assetChainId;
+    private final int assetId;
+
+    public AssetWrapper(int assetChainId, int assetId) {
+        this.assetChainId = assetChainId;
+        this.assetId = assetId;
+    }
+
+    @Override
+    public BigInteger balanceOf(Address account) {
+        return Chain.current().assetBalance(assetChainId, assetId, account);
+    }
+
+    @Override
+    public void transfer(Address to, BigInteger value) {
+        Chain.current().transferAsset(assetChainId, assetId, to, value);
+    }
+
+    @Override
+    public void transferLocked(Address to, BigInteger value, long unlockTime) {
+        Chain.current().transferAsset(assetChainId, assetId, to, value);
+    }
+
+    @Override
+    public void approve(Address spender, BigInteger value) {
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.sdk.token;
+
+import io.nuls.contract.sdk.Address;
+
+import java.math.BigInteger;
+
+import static io.nuls.contract.sdk.Utils.require;
+
+/**
+ * SDK替身: 通过跨合约调用操作NRC20合约
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class NRC20Wrapper implements Token {
+
+    private final Address nrc20;
+
+    public NRC20Wrapper(Address nrc20) {
+        this.nrc20 = nrc20;
+    }
+
+    @Override
+    public BigInteger balanceOf(Address account) {
+        String result = nrc20.callWithReturnValue("balanceOf", "", new String[][]{new String[]{account.toString()}}, BigInteger.ZERO);
+        return new BigInteger(result);
+    }
+
+    @Override
+    public void transfer(Address to, BigInteger value) {
+        String result = nrc20.callWithReturnValue("transfer", "", new String[][]{new String[]{to.toString()}, new String[]{value.toString()}}, BigInteger.ZERO);
+        require(Boolean.parseBoolean(result), "NRC20 transfer failed");
+    }
+
+    @Override
+    public void transferLocked(Address to, BigInteger value, long unlockTime) {
+        String result = nrc20.callWithReturnValue("transferLocked", "", new String[][]{new String[]{to.toString()}, new String[]{value.toString()}, new String[]{String.valueOf(unlockTime)}}, BigInteger.ZERO);
+        require(Boolean.parseBoolean(result), "NRC20 transferLocked failed");
+    }
+
+    @Override
+    public void approve(Address spender, BigInteger value) {
+        String result = nrc20.callWithReturnValue("approve", "", new String[][]{new String[]{spender.toString()}, new String[]{value.toString()}}, BigInteger.ZERO);
+        require(Boolean.parseBoolean(result), "NRC20 approve failed");
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import io.nuls.contract.event.DomainMinted;
+import io.nuls.contract.event.DomainTransfer;
+import io.nuls.contract.event.UserActiveAward;
+import io.nuls.contract.event.UserPendingAward;
+import io.nuls.contract.sdk.Address;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static io.nuls.contract.harness.Chain.arg;
+import static io.nuls.contract.harness.Chain.nuls;
+import static org.junit.Assert.*;
+
+/**
+ * 在进程内关联部署的三个合约上验证跨合约调用
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DomainFixtureTest {
+
+    private DomainFixture fixture;
+    private Chain chain;
+
+    @Before
+    public void setUp() {
+        fixture = new DomainFixture();
+        chain = fixture.chain;
+    }
+
+    private String view(Address contract, String method, String[]... args) {
+        return chain.call(fixture.owner, contract, BigInteger.ZERO, method, args).getResult();
+    }
+
+    @Test
+    public void mintRegistersTokenOnNrc721() {
+        Address alice = fixture.user();
+        Receipt receipt = fixture.mint(alice, "alice1.ai");
+        assertEquals(1, receipt.getEvents(DomainMinted.class).size());
+        assertEquals(1, receipt.getEvents(UserActiveAward.class).size());
+        // 查询staking合约的共识奖励一次，在NRC721合约铸造一次
+        assertEquals(2, receipt.getStats().getCrossContractCalls());
+        assertEquals(nuls(100), chain.balance(fixture.domain));
+
+        BigInteger tokenId = fixture.tokenId("alice1.ai");
+        assertEquals(alice.toString(), view(fixture.nrc721, "ownerOf", arg(tokenId)));
+        assertEquals("[1,0]", view(fixture.domain, "userDomainCounts", arg(alice)));
+    }
+
+    @Test
+    public void transferFromSettlesBothHoldersThroughCallback() {
+        Address alice = fixture.user();
+        Address bob = fixture.user();
+        fixture.mint(alice, "alice1.ai");
+        Receipt receipt = fixture.transferDomain(alice, bob, "alice1.ai");
+        assertEquals(1, receipt.getEvents(DomainTransfer.class).size());
+        assertTrue(receipt.getStats().getCrossContractCalls() >= 1);
+        assertEquals("[0,0]", view(fixture.domain, "userDomainCounts", arg(alice)));
+        assertEquals("[1,0]", view(fixture.domain, "userDomainCounts", arg(bob)));
+        assertEquals(bob.toString(), view(fixture.nrc721, "ownerOf", arg(fixture.tokenId("alice1.ai"))));
+    }
+
+    @Test
+    public void revertRestoresBalancesAndEvents() {
+        Address alice = fixture.user();
+        int events = chain.events().size();
+        try {
+            fixture.mint(alice, "alice1.ai", nuls(50));
+            fail("payment below the price must revert");
+        } catch (RevertException e) {
+            assertEquals("Insufficient payment", e.getMessage());
+        }
+        assertEquals(DomainFixture.ACCOUNT_BALANCE, chain.balance(alice));
+        assertEquals(BigInteger.ZERO, chain.balance(fixture.domain));
+        assertEquals(events, chain.events().size());
+    }
+
+    @Test
+    public void consensusRewardReachesDomainHolders() {
+        Address alice = fixture.user();
+        fixture.mint(alice, "alice1.ai");
+        chain.call(fixture.official, fixture.domain, BigInteger.ZERO, "setSweepThresholds", arg(nuls(1)), arg(nuls(1)));
+        Receipt sweep = chain.call(alice, fixture.domain, BigInteger.ZERO, "sweep");
+        assertEquals(1, sweep.getStats().getTransfers());
+        // 20%手续费转入国库，其余质押到staking合约
+        assertEquals(nuls(20), chain.balance(fixture.treasury));
+        assertEquals(nuls(80), chain.balance(fixture.staking));
+
+        fixture.consensusReward(nuls(10));
+        BigInteger before = chain.balance(alice);
+        chain.call(alice, fixture.domain, BigInteger.ZERO, "receiveAward");
+        // staking合约保留10%给国库，其余转给domain合约后全部分给唯一激活的域名
+        assertEquals(before.add(nuls(9)), chain.balance(alice));
+        assertEquals(nuls(21), chain.balance(fixture.treasury));
+    }
+
+    @Test
+    public void flushPayoutsSkipsContractHolders() {
+        Address alice = fixture.user();
+        Address holder = chain.deploy(fixture.owner, RejectingHolder.class);
+        fixture.mint(alice, "alice1.ai");
+        fixture.mint(alice, "vault1.ai");
+        fixture.mint(alice, "vault2.ai");
+        fixture.transferDomain(alice, holder, "vault1.ai");
+        chain.call(fixture.official, fixture.domain, BigInteger.ZERO, "setSweepThresholds", arg(nuls(1)), arg(nuls(1)));
+        chain.call(alice, fixture.domain, BigInteger.ZERO, "sweep");
+
+        fixture.consensusReward(nuls(12));
+        // 再次转入域名时结算双方的奖励，两者都进入发放队列
+        Receipt transfer = fixture.transferDomain(alice, holder, "vault2.ai");
+        assertTrue(transfer.getEvents(UserPendingAward.class).isEmpty());
+        assertEquals(2, Integer.parseInt(view(fixture.domain, "getPayoutQueueSize")));
+
+        BigInteger before = chain.balance(alice);
+        Receipt flush = chain.call(fixture.owner, fixture.domain, BigInteger.ZERO, "flushPayouts", arg(10));
+        assertEquals("0", flush.getResult());
+        assertEquals(1, flush.getStats().getTransfers());
+        // 10.8 NULS按3个激活域名分配，alice持有2个，合约持有者的份额保留待其自行领取
+        assertEquals(before.add(nuls(72).divide(BigInteger.TEN)), chain.balance(alice));
+        assertEquals(nuls(36).divide(BigInteger.TEN), new BigInteger(view(fixture.domain, "pendingAward", arg(holder))));
+        assertEquals(1, flush.getEvents(UserPendingAward.class).size());
+    }
+
+    @Test
+    public void stakingDelegatesToConsensusAgent() {
+        fixture.addAgent("agent1");
+        Address staker = fixture.user();
+        Receipt receipt = chain.call(staker, fixture.staking, nuls(2000), "depositForOwn");
+        assertTrue(receipt.getStats().getExternalCmds() > 0);
+        assertEquals(nuls(2000), chain.consensusDeposit(fixture.staking));
+        assertEquals(BigInteger.ZERO, chain.balance(fixture.staking));
+
+        chain.call(staker, fixture.staking, BigInteger.ZERO, "quit", arg(""));
+        assertEquals(BigInteger.ZERO, chain.consensusDeposit(fixture.staking));
+        assertEquals(DomainFixture.ACCOUNT_BALANCE, chain.balance(staker));
+    }
+}
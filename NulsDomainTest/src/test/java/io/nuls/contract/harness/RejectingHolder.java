@@ -0,0 +1,51 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.harness;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Contract;
+import io.nuls.contract.sdk.annotation.Payable;
+
+import java.math.BigInteger;
+
+import static io.nuls.contract.sdk.Utils.revert;
+
+/**
+ * 可以持有域名但拒绝接收NULS的合约，用于验证批量发放不会被单个持有者阻塞
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class RejectingHolder implements Contract {
+
+    public boolean onNRC721Received(Address operator, Address from, BigInteger tokenId, String data) {
+        return true;
+    }
+
+    @Override
+    @Payable
+    public void _payable() {
+        revert("Rejecting holder");
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DomainIdListTest {
+
+    private static BigInteger id(long value) {
+        return BigInteger.valueOf(value);
+    }
+
+    @Test
+    public void addIgnoresDuplicates() {
+        DomainIdList list = new DomainIdList();
+        assertTrue(list.add(id(1)));
+        assertFalse(list.add(id(1)));
+        assertEquals(1, list.size());
+        assertTrue(list.contains(id(1)));
+    }
+
+    @Test
+    public void removeFillsGapWithLastElement() {
+        DomainIdList list = new DomainIdList();
+        list.add(id(1));
+        list.add(id(2));
+        list.add(id(3));
+        assertTrue(list.remove(id(1)));
+        assertEquals(2, list.size());
+        assertEquals(id(3), list.get(0));
+        assertEquals(id(2), list.get(1));
+        assertFalse(list.contains(id(1)));
+        // 被移动的元素位置已更新，可以再次正确删除
+        assertTrue(list.remove(id(3)));
+        assertEquals(id(2), list.get(0));
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    public void removeLastAndMissing() {
+        DomainIdList list = new DomainIdList();
+        list.add(id(1));
+        list.add(id(2));
+        assertTrue(list.remove(id(2)));
+        assertFalse(list.remove(id(2)));
+        assertFalse(list.remove(id(9)));
+        assertEquals(1, list.size());
+        assertEquals(id(1), list.get(0));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DomainNameTest {
+
+    @Test
+    public void parseLowersCaseAndSplitsSuffix() {
+        DomainName name = DomainName.parse("Nuls01.AI");
+        assertEquals("nuls01.ai", name.getName());
+        assertEquals("ai", name.getSuffix());
+        assertEquals(6, name.getPrefixLength());
+        assertTrue(name.isValidPrefix());
+    }
+
+    @Test
+    public void parseWithoutDot() {
+        DomainName name = DomainName.parse("nuls");
+        assertEquals("nuls", name.getName());
+        assertNull(name.getSuffix());
+        assertEquals(-1, name.getPrefixLength());
+        assertFalse(name.isValidPrefix());
+    }
+
+    @Test
+    public void parseNull() {
+        DomainName name = DomainName.parse(null);
+        assertNull(name.getName());
+        assertNull(name.getSuffix());
+        assertFalse(name.isValidPrefix());
+    }
+
+    @Test
+    public void suffixIsAfterLastDot() {
+        DomainName name = DomainName.parse("a.b.ai");
+        assertEquals("ai", name.getSuffix());
+        assertEquals(3, name.getPrefixLength());
+        // 前缀中的'.'属于非法字符
+        assertFalse(name.isValidPrefix());
+    }
+
+    @Test
+    public void invalidPrefixCharacters() {
+        assertFalse(DomainName.parse("nu_ls.ai").isValidPrefix());
+        assertFalse(DomainName.parse("nu-ls.ai").isValidPrefix());
+        // 空前缀由调用方按长度拦截
+        assertEquals(0, DomainName.parse(".ai").getPrefixLength());
+        // 后缀中的字符不影响前缀校验
+        assertTrue(DomainName.parse("nuls.a_i").isValidPrefix());
+    }
+
+    @Test
+    public void toLowerCase() {
+        String lower = "nuls.ai";
+        assertSame(lower, DomainName.toLowerCase(lower));
+        assertEquals("nuls.ai", DomainName.toLowerCase("NuLs.Ai"));
+        assertNull(DomainName.toLowerCase(null));
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DomainPriceTest {
+
+    private static final BigInteger ONE_NULS = BigInteger.valueOf(100000000L);
+    private DomainPrice price;
+
+    @Before
+    public void setUp() {
+        price = new DomainPrice(ONE_NULS);
+    }
+
+    private static BigInteger nuls(long value) {
+        return ONE_NULS.multiply(BigInteger.valueOf(value));
+    }
+
+    @Test
+    public void defaultLadder() {
+        assertEquals(nuls(10000), price.getPrice(1));
+        assertEquals(nuls(5000), price.getPrice(2));
+        assertEquals(nuls(1000), price.getPrice(3));
+        assertEquals(nuls(120), price.getPrice(4));
+        assertEquals(nuls(110), price.getPrice(5));
+        assertEquals(nuls(100), price.getPrice(6));
+        assertEquals(nuls(100), price.getPrice(DomainPrice.MAX_LENGTH));
+        assertEquals(6, price.getDefaultPriceLength());
+    }
+
+    @Test
+    public void outOfRangeLengthUsesDefaultPrice() {
+        assertEquals(price.getDefaultPrice(), price.getPrice(0));
+        assertEquals(price.getDefaultPrice(), price.getPrice(-1));
+        assertEquals(price.getDefaultPrice(), price.getPrice(DomainPrice.MAX_LENGTH + 1));
+    }
+
+    @Test
+    public void setPriceReturnsPreviousPrice() {
+        assertEquals(nuls(120), price.setPrice(4, nuls(130)));
+        assertEquals(nuls(130), price.getPrice(4));
+    }
+
+    @Test
+    public void appendPriceMovesDefaultLength() {
+        price.appendPrice(nuls(105));
+        assertEquals(7, price.getDefaultPriceLength());
+        assertEquals(nuls(105), price.getPrice(6));
+        assertEquals(nuls(100), price.getPrice(7));
+    }
+
+    @Test
+    public void setDefaultPrice() {
+        price.setDefaultPrice(nuls(90));
+        assertEquals(nuls(90), price.getPrice(10));
+        assertEquals(nuls(110), price.getPrice(5));
+    }
+}
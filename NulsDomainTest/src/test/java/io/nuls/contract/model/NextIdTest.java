@@ -0,0 +1,71 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import io.nuls.contract.sdk.Address;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class NextIdTest {
+
+    private static BigInteger id(long value) {
+        return BigInteger.valueOf(value);
+    }
+
+    @Test
+    public void allocatesSequentially() {
+        NextId nextId = new NextId(id(10), id(13));
+        assertEquals(id(10), nextId.getIdAndAddOne());
+        assertEquals(id(11), nextId.getIdAndAddOne());
+        assertEquals(id(12), nextId.getIdAndAddOne());
+        assertEquals(id(13), nextId.getId());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void exhaustedRangeReverts() {
+        NextId nextId = new NextId(id(1), id(2));
+        nextId.getIdAndAddOne();
+        nextId.getIdAndAddOne();
+    }
+
+    @Test
+    public void switchesToPendingRanges() {
+        Address token721 = new Address("tNULSeBaN1");
+        NextId nextId = new NextId(id(1), id(2));
+        nextId.addRange(new TokenRange(id(100), id(101), token721));
+        nextId.addRange(new TokenRange(id(200), id(202), token721));
+        assertEquals(id(1), nextId.getIdAndAddOne());
+        assertEquals(id(100), nextId.getIdAndAddOne());
+        assertEquals(id(200), nextId.getIdAndAddOne());
+        assertEquals(id(201), nextId.getIdAndAddOne());
+        assertEquals(id(202), nextId.getEnd());
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm.manager;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class StakerIndexTest {
+
+    @Test
+    public void addIgnoresDuplicates() {
+        StakerIndex index = new StakerIndex(1);
+        index.add("a");
+        index.add("a");
+        index.add("b");
+        assertEquals(2, index.size());
+        assertEquals("a", index.get(0));
+        assertEquals("b", index.get(1));
+    }
+
+    @Test
+    public void removeFillsGapWithLastAddress() {
+        StakerIndex index = new StakerIndex(1);
+        index.add("a");
+        index.add("b");
+        index.add("c");
+        index.remove("a");
+        assertEquals(2, index.size());
+        assertEquals("c", index.get(0));
+        assertEquals("b", index.get(1));
+        index.remove("c");
+        assertEquals("b", index.get(0));
+        index.remove("missing");
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void agentDepositors() {
+        StakerIndex index = new StakerIndex(1);
+        index.addAgentDepositor("a", "hash1");
+        assertTrue(index.isAgentDepositor("a"));
+        assertEquals("hash1", index.getAgentHash("a"));
+        assertEquals(1, index.agentDepositorSize());
+        index.removeAgentDepositor("a");
+        assertFalse(index.isAgentDepositor("a"));
+        assertNull(index.getAgentHash("a"));
+        assertEquals(0, index.agentDepositorSize());
+    }
+
+    @Test
+    public void removeBeforeCursorKeepsUnprocessedAddressAfterCursor() {
+        StakerIndex index = new StakerIndex(1);
+        index.add("a");
+        index.add("b");
+        index.add("c");
+        index.add("d");
+        index.setCursor(0, 2);
+        // 删除已处理的a，未处理的d不能被移到游标之前
+        index.remove("a");
+        assertEquals(1, index.getCursor(0));
+        assertEquals("b", index.get(0));
+        assertEquals("d", index.get(1));
+        assertEquals("c", index.get(2));
+    }
+
+    /**
+     * 随机增删地址、推进游标，每个游标之前的地址始终等于该游标本轮已处理且仍存在的地址
+     */
+    @Test
+    public void cursorsSurviveRandomRemovals() {
+        Random random = new Random(20261018L);
+        int cursorCount = 3;
+        StakerIndex index = new StakerIndex(cursorCount);
+        List<Set<String>> processed = new ArrayList<Set<String>>();
+        for (int k = 0; k < cursorCount; k++) {
+            processed.add(new HashSet<String>());
+        }
+        int nextAddress = 0;
+        for (int step = 0; step < 5000; step++) {
+            int op = random.nextInt(3);
+            if (op == 0 || index.size() == 0) {
+                index.add("u" + nextAddress++);
+            } else if (op == 1) {
+                String address = index.get(random.nextInt(index.size()));
+                index.remove(address);
+                for (Set<String> set : processed) {
+                    set.remove(address);
+                }
+            } else {
+                int k = random.nextInt(cursorCount);
+                int cursor = index.getCursor(k);
+                if (cursor < index.size()) {
+                    assertTrue(processed.get(k).add(index.get(cursor)));
+                    index.setCursor(k, cursor + 1);
+                } else {
+                    index.setCursor(k, 0);
+                    processed.get(k).clear();
+                }
+            }
+            for (int k = 0; k < cursorCount; k++) {
+                int cursor = index.getCursor(k);
+                assertTrue(cursor <= index.size());
+                Set<String> before = new HashSet<String>();
+                for (int i = 0; i < cursor; i++) {
+                    before.add(index.get(i));
+                }
+                assertEquals(processed.get(k), before);
+            }
+        }
+    }
+}
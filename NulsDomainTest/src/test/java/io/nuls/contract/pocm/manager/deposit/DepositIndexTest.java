@@ -0,0 +1,245 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm.manager.deposit;
+
+import io.nuls.contract.pocm.model.ConsensusDepositInfo;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class DepositIndexTest {
+
+    private static ConsensusDepositInfo deposit(String agentHash, String hash, long amount) {
+        return new ConsensusDepositInfo(agentHash, hash, BigInteger.valueOf(amount));
+    }
+
+    private static List<String> hashes(List<ConsensusDepositInfo> plan) {
+        List<String> result = new ArrayList<String>();
+        for (ConsensusDepositInfo info : plan) {
+            result.add(info.getHash());
+        }
+        return result;
+    }
+
+    private static List<String> hashes(String... values) {
+        List<String> result = new ArrayList<String>();
+        for (String value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    @Test
+    public void keepsAscendingOrderWithStableTies() {
+        DepositIndex index = new DepositIndex();
+        ConsensusDepositInfo d1 = deposit("agent1", "h1", 300);
+        ConsensusDepositInfo d2 = deposit("agent1", "h2", 100);
+        ConsensusDepositInfo d3 = deposit("agent2", "h3", 300);
+        ConsensusDepositInfo d4 = deposit("agent2", "h4", 200);
+        index.add(d1);
+        index.add(d2);
+        index.add(d3);
+        index.add(d4);
+        assertSame(d2, index.get(0));
+        assertSame(d4, index.get(1));
+        assertSame(d1, index.get(2));
+        assertSame(d3, index.get(3));
+        // 金额相同时先加入的委托先被选中
+        assertEquals(hashes("h1"), hashes(index.planCovering(BigInteger.valueOf(300))));
+        assertEquals(hashes("h4"), hashes(index.planCovering(BigInteger.valueOf(150))));
+    }
+
+    @Test
+    public void removeUpdatesAllIndexes() {
+        DepositIndex index = new DepositIndex();
+        ConsensusDepositInfo d1 = deposit("agent1", "h1", 100);
+        ConsensusDepositInfo d2 = deposit("agent1", "h2", 100);
+        index.add(d1);
+        index.add(d2);
+        assertTrue(index.remove(d2));
+        assertFalse(index.remove(d2));
+        assertEquals(1, index.size());
+        assertSame(d1, index.get(0));
+        assertFalse(index.contains("h2"));
+        assertSame(d1, index.getByHash("h1"));
+        assertEquals(1, index.getByAgent("agent1").size());
+        assertEquals(hashes("h1"), hashes(index.planCovering(BigInteger.valueOf(200))));
+        assertTrue(index.remove(d1));
+        assertTrue(index.isEmpty());
+        assertTrue(index.getByAgent("agent1").isEmpty());
+        assertTrue(index.planCovering(BigInteger.ONE).isEmpty());
+    }
+
+    @Test
+    public void getByAgentReturnsCopy() {
+        DepositIndex index = new DepositIndex();
+        ConsensusDepositInfo d1 = deposit("agent1", "h1", 100);
+        index.add(d1);
+        List<ConsensusDepositInfo> copy = index.getByAgent("agent1");
+        index.remove(d1);
+        assertEquals(1, copy.size());
+    }
+
+    @Test
+    public void planCoveringReturnsAllWhenInsufficient() {
+        DepositIndex index = new DepositIndex();
+        index.add(deposit("agent1", "h1", 100));
+        index.add(deposit("agent1", "h2", 200));
+        assertEquals(2, index.planCovering(BigInteger.valueOf(301)).size());
+    }
+
+    @Test
+    public void planCoveringPrefersSmallestSufficientDeposit() {
+        DepositIndex index = new DepositIndex();
+        index.add(deposit("agent1", "h1", 100));
+        index.add(deposit("agent1", "h2", 250));
+        index.add(deposit("agent1", "h3", 900));
+        assertEquals(hashes("h2"), hashes(index.planCovering(BigInteger.valueOf(200))));
+        // 一笔不够时先取能与最大一笔凑足的最小委托，再取覆盖剩余金额的最小委托
+        assertEquals(hashes("h1", "h3"), hashes(index.planCovering(BigInteger.valueOf(950))));
+    }
+
+    /**
+     * 逐笔贪心不保证多笔时超出金额最小：委托2、3、3、5退出6时选出2+5(超出1)，而3+3恰好覆盖
+     */
+    @Test
+    public void planCoveringIsGreedyForSeveralDeposits() {
+        DepositIndex index = new DepositIndex();
+        index.add(deposit("agent1", "h1", 2));
+        index.add(deposit("agent1", "h2", 3));
+        index.add(deposit("agent1", "h3", 3));
+        index.add(deposit("agent1", "h4", 5));
+        assertEquals(hashes("h1", "h4"), hashes(index.planCovering(BigInteger.valueOf(6))));
+    }
+
+    /**
+     * 与穷举结果对比计划的保证：
+     * 笔数等于最少笔数；只需一笔时超出金额等于穷举最小值；
+     * 每一笔都是未选委托中，剩余笔数仍能覆盖剩余金额的最小委托
+     */
+    @Test
+    public void planCoveringMatchesItsGuarantees() {
+        Random random = new Random(20261018L);
+        for (int round = 0; round < 500; round++) {
+            DepositIndex index = new DepositIndex();
+            int size = 1 + random.nextInt(8);
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                long amount = 1 + random.nextInt(50);
+                total += amount;
+                index.add(deposit("agent" + random.nextInt(3), "h" + i, amount));
+            }
+            long target = 1 + random.nextInt((int) total);
+            List<ConsensusDepositInfo> plan = index.planCovering(BigInteger.valueOf(target));
+            List<Long> unused = new ArrayList<Long>();
+            for (ConsensusDepositInfo info : index.snapshot()) {
+                unused.add(info.getDeposit().longValue());
+            }
+
+            long sum = 0;
+            for (ConsensusDepositInfo info : plan) {
+                sum += info.getDeposit().longValue();
+            }
+            assertTrue(sum >= target);
+            long[] best = exhaustive(unused, target);
+            assertEquals(best[0], plan.size());
+            assertTrue(sum - target >= best[1]);
+            if (plan.size() == 1) {
+                assertEquals(best[1], sum - target);
+            }
+
+            long remaining = target;
+            for (int i = 0; i < plan.size(); i++) {
+                int picksLeft = plan.size() - i - 1;
+                long picked = plan.get(i).getDeposit().longValue();
+                unused.remove(Long.valueOf(picked));
+                for (Long candidate : unused) {
+                    if (candidate < picked) {
+                        List<Long> others = new ArrayList<Long>(unused);
+                        others.remove(candidate);
+                        assertFalse(canCover(others, picksLeft, remaining - candidate));
+                    }
+                }
+                remaining -= picked;
+            }
+        }
+    }
+
+    // 返回{最少笔数, 该笔数下的最小超出金额}
+    private static long[] exhaustive(List<Long> deposits, long target) {
+        int size = deposits.size();
+        long bestCount = Long.MAX_VALUE;
+        long bestExcess = Long.MAX_VALUE;
+        for (int mask = 1; mask < (1 << size); mask++) {
+            long sum = 0;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    sum += deposits.get(i);
+                    count++;
+                }
+            }
+            if (sum < target) {
+                continue;
+            }
+            if (count < bestCount || (count == bestCount && sum - target < bestExcess)) {
+                bestCount = count;
+                bestExcess = sum - target;
+            }
+        }
+        return new long[]{bestCount, bestExcess};
+    }
+
+    // 是否存在不超过picks笔的组合覆盖target
+    private static boolean canCover(List<Long> deposits, int picks, long target) {
+        if (target <= 0) {
+            return true;
+        }
+        int size = deposits.size();
+        for (int mask = 1; mask < (1 << size); mask++) {
+            if (Integer.bitCount(mask) > picks) {
+                continue;
+            }
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    sum += deposits.get(i);
+                }
+            }
+            if (sum >= target) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.utils;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * NulsDomainStaking中的io.nuls.contract.pocm.util.RewardAccumulator与本类除包名外完全一致，只在此测试一份
+ *
+ * @author: PierreLuo
+ * @date: 2026/10/18
+ */
+public class RewardAccumulatorTest {
+
+    private static final BigInteger P = BigInteger.valueOf(RewardAccumulator.PRECISION);
+    private static final long MAX_MULTIPLICAND = RewardAccumulator.MAX_MULTIPLICAND;
+
+    private static BigInteger big(long value) {
+        return BigInteger.valueOf(value);
+    }
+
+    // 不经过long计算的参考公式
+    private static BigInteger referenceIncrement(long reward, long supply) {
+        return big(reward).multiply(P).divide(big(supply));
+    }
+
+    private static BigInteger referenceAccrued(long amount, BigInteger accPerShare) {
+        return big(amount).multiply(accPerShare).divide(P);
+    }
+
+    @Test
+    public void accumulateWithoutSupplyKeepsAccPerShare() {
+        BigInteger acc = big(7);
+        assertSame(acc, RewardAccumulator.accumulate(acc, BigInteger.TEN, BigInteger.ZERO));
+        assertSame(acc, RewardAccumulator.accumulate(acc, BigInteger.ZERO, BigInteger.TEN));
+    }
+
+    @Test
+    public void accumulateAndPending() {
+        // 3个单位分配10na，每份3333333333333(按1e12放大)
+        BigInteger acc = RewardAccumulator.accumulate(BigInteger.ZERO, BigInteger.TEN, big(3));
+        assertEquals(new BigInteger("3333333333333"), acc);
+        assertEquals(big(3), RewardAccumulator.accrued(BigInteger.ONE, acc));
+        assertEquals(big(9), RewardAccumulator.accrued(big(3), acc));
+        assertEquals(big(6), RewardAccumulator.pending(big(3), acc, big(3)));
+        assertEquals(BigInteger.ZERO, RewardAccumulator.accrued(BigInteger.ZERO, acc));
+    }
+
+    @Test
+    public void supplyOfOneReceivesWholeReward() {
+        long[] rewards = {1, MAX_MULTIPLICAND, MAX_MULTIPLICAND + 1, Long.MAX_VALUE};
+        for (long reward : rewards) {
+            BigInteger acc = RewardAccumulator.accumulate(BigInteger.ZERO, big(reward), BigInteger.ONE);
+            assertEquals(big(reward).multiply(P), acc);
+            assertEquals(big(reward), RewardAccumulator.accrued(1, acc));
+            assertEquals(BigInteger.ZERO, RewardAccumulator.pending(1, acc, big(reward)));
+        }
+    }
+
+    @Test
+    public void incrementBoundary() {
+        assertEquals(MAX_MULTIPLICAND * RewardAccumulator.PRECISION, RewardAccumulator.increment(MAX_MULTIPLICAND, 1));
+        assertEquals(-1, RewardAccumulator.increment(MAX_MULTIPLICAND + 1, 1));
+        // 商在边界上时，余数部分决定两项之和是否溢出: Long.MAX_VALUE - 9223372 * 1e12 = 36854775807
+        long supply = 1000;
+        assertEquals(referenceIncrement(MAX_MULTIPLICAND * supply + 36, supply).longValue(),
+                RewardAccumulator.increment(MAX_MULTIPLICAND * supply + 36, supply));
+        assertEquals(-1, RewardAccumulator.increment(MAX_MULTIPLICAND * supply + 37, supply));
+        // 余数本身与PRECISION相乘会溢出
+        assertEquals(-1, RewardAccumulator.increment(MAX_MULTIPLICAND + 1, MAX_MULTIPLICAND + 2));
+        assertEquals(referenceIncrement(MAX_MULTIPLICAND, MAX_MULTIPLICAND + 1).longValue(),
+                RewardAccumulator.increment(MAX_MULTIPLICAND, MAX_MULTIPLICAND + 1));
+
+        long[][] cases = {
+                {MAX_MULTIPLICAND * supply + 36, supply},
+                {MAX_MULTIPLICAND * supply + 37, supply},
+                {MAX_MULTIPLICAND + 1, MAX_MULTIPLICAND + 2},
+                {Long.MAX_VALUE, 1},
+                {Long.MAX_VALUE, Long.MAX_VALUE},
+                {Long.MAX_VALUE - 1, Long.MAX_VALUE}
+        };
+        BigInteger acc = new BigInteger("123456789012345678901234567890");
+        for (long[] c : cases) {
+            assertEquals(acc.add(referenceIncrement(c[0], c[1])),
+                    RewardAccumulator.accumulate(acc, big(c[0]), big(c[1])));
+        }
+    }
+
+    @Test
+    public void accruedBoundary() {
+        long[] amounts = {1, 2, 3, 7, 1000, 123456789, Long.MAX_VALUE};
+        for (long amount : amounts) {
+            long limit = Long.MAX_VALUE / amount;
+            long[] accs = {limit - 1, limit, limit + 1, Long.MAX_VALUE};
+            for (long a : accs) {
+                BigInteger acc = big(a);
+                assertEquals(referenceAccrued(amount, acc), RewardAccumulator.accrued(amount, acc));
+                assertEquals(referenceAccrued(amount, acc), RewardAccumulator.accrued(big(amount), acc));
+            }
+            BigInteger beyondLong = BigInteger.ONE.shiftLeft(63);
+            assertEquals(referenceAccrued(amount, beyondLong), RewardAccumulator.accrued(amount, beyondLong));
+        }
+        BigInteger beyondLongAmount = BigInteger.ONE.shiftLeft(64);
+        assertEquals(beyondLongAmount, RewardAccumulator.accrued(beyondLongAmount, P));
+    }
+
+    @Test
+    public void accumulateIsMonotonic() {
+        Random random = new Random(20261018L);
+        BigInteger acc = BigInteger.ZERO;
+        BigInteger previousAccrued = BigInteger.ZERO;
+        long amount = 1 + random.nextInt(1000);
+        for (int i = 0; i < 5000; i++) {
+            long reward = random.nextInt(4) == 0 ? random.nextLong() & Long.MAX_VALUE : random.nextInt(100000);
+            long supply = random.nextInt(4) == 0 ? random.nextLong() & Long.MAX_VALUE : random.nextInt(1000);
+            BigInteger next = RewardAccumulator.accumulate(acc, big(reward), big(supply));
+            assertTrue(next.compareTo(acc) >= 0);
+            acc = next;
+            BigInteger accrued = RewardAccumulator.accrued(amount, acc);
+            assertTrue(accrued.compareTo(previousAccrued) >= 0);
+            previousAccrued = accrued;
+        }
+    }
+
+    /**
+     * 多个用户按份额领取的合计不超过已分配的奖励
+     */
+    @Test
+    public void roundingNeverOverpays() {
+        Random random = new Random(20261019L);
+        for (int round = 0; round < 300; round++) {
+            int users = 1 + random.nextInt(20);
+            long[] amounts = new long[users];
+            long supply = 0;
+            boolean large = random.nextBoolean();
+            for (int i = 0; i < users; i++) {
+                amounts[i] = 1 + (large ? (random.nextLong() & 0xFFFFFFFFFFFFL) : random.nextInt(10));
+                supply += amounts[i];
+            }
+            BigInteger acc = BigInteger.ZERO;
+            BigInteger totalReward = BigInteger.ZERO;
+            int rewards = 1 + random.nextInt(10);
+            for (int i = 0; i < rewards; i++) {
+                long reward = random.nextBoolean() ? random.nextInt(1000000) : random.nextLong() & 0xFFFFFFFFFFFFFFL;
+                acc = RewardAccumulator.accumulate(acc, big(reward), big(supply));
+                totalReward = totalReward.add(big(reward));
+            }
+            BigInteger paid = BigInteger.ZERO;
+            for (long amount : amounts) {
+                paid = paid.add(RewardAccumulator.accrued(amount, acc));
+            }
+            assertTrue(paid.compareTo(totalReward) <= 0);
+            if (!large) {
+                // 份额总数远小于1e12时，每次分配和每个用户最多各舍去1
+                assertTrue(paid.compareTo(totalReward.subtract(big(users + rewards))) >= 0);
+            }
+        }
+    }
+}